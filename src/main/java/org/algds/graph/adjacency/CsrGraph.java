@@ -0,0 +1,234 @@
+package org.algds.graph.adjacency;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压缩稀疏行(CSR, Compressed Sparse Row)图快照
+ *  1 顶点按ID升序映射为稠密下标 0..n-1, 下标与ID之间通过 ids 数组和二分查找互相转换
+ *  2 顶点v的出边存放在 [offsets[v], offsets[v+1]) 区间内, 区间内 targets/weights 分别保存终点下标和权重
+ *  3 快照构建完成后不可变, 原图后续的增删改不会反映到快照中
+ *
+ *  适用于大规模图上的只读算法: 遍历邻接边时不再发生装箱、哈希以及临时集合分配
+ */
+public final class CsrGraph {
+
+    private final int vertexNum;
+    private final int edgeNum;
+
+    private final int[] ids;          // 稠密下标 -> 顶点ID, 升序排列
+    private final Vertex[] vertices;  // 稠密下标 -> 原始顶点
+    private final int[] offsets;      // 长度 vertexNum+1, 顶点v的出边区间为 [offsets[v], offsets[v+1])
+    private final int[] targets;      // 边下标 -> 终点下标
+    private final int[] weights;      // 边下标 -> 权重
+    private final Edge[] edges;       // 边下标 -> 原始边
+
+    private final int minWeight;
+    private final int maxWeight;
+
+    private volatile CsrGraph transpose; // 反向图, 首次使用时构建
+
+
+    private CsrGraph(int[] ids, Vertex[] vertices, int[] offsets, int[] targets, int[] weights, Edge[] edges) {
+        this.vertexNum = ids.length;
+        this.edgeNum = targets.length;
+        this.ids = ids;
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.edges = edges;
+
+        int min = 0, max = 0;
+        if (edgeNum > 0) {
+            min = Integer.MAX_VALUE;
+            max = Integer.MIN_VALUE;
+            for (int w : weights) {
+                if (w < min) min = w;
+                if (w > max) max = w;
+            }
+        }
+        this.minWeight = min;
+        this.maxWeight = max;
+    }
+
+    /**
+     * 从邻接表图构建CSR快照 时间复杂度 O(V log V + E)
+     *
+     * @param graph 邻接表图
+     * @return
+     */
+    public static CsrGraph of(Graph graph) {
+        Map<Integer, Vertex> vertexMap = graph.getVertices();
+
+        // 1 顶点ID升序排列, 数组下标即为稠密下标
+        int n = vertexMap.size();
+        int[] ids = new int[n];
+        int i = 0;
+        for (Integer id : vertexMap.keySet()) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+
+        Vertex[] vertices = new Vertex[n];
+        for (i = 0; i < n; i++) {
+            vertices[i] = vertexMap.get(ids[i]);
+        }
+
+        // 2 统计出度得到每个顶点出边区间的起点
+        int[] offsets = new int[n + 1];
+        for (i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + vertices[i].getEdges().size();
+        }
+
+        // 3 按顶点顺序依次填充边数组
+        int m = offsets[n];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        Edge[] edges = new Edge[m];
+        int e = 0;
+        for (i = 0; i < n; i++) {
+            List<Edge> adjacency = vertices[i].getEdges();
+            for (int j = 0; j < adjacency.size(); j++) {
+                Edge edge = adjacency.get(j);
+                int to = Arrays.binarySearch(ids, edge.getTo().getId());
+                if (to < 0) {
+                    throw new IllegalArgumentException(String.format("边%s的终点%s不在图中", edge.getId(), edge.getTo().getId()));
+                }
+                targets[e] = to;
+                weights[e] = edge.getWeight();
+                edges[e] = edge;
+                e++;
+            }
+        }
+
+        return new CsrGraph(ids, vertices, offsets, targets, weights, edges);
+    }
+
+
+    // 顶点 *************************************************************************************************************
+    public int getVertexNum() {
+        return vertexNum;
+    }
+
+    public int getEdgeNum() {
+        return edgeNum;
+    }
+
+    /**
+     * 顶点ID -> 稠密下标, 不存在返回-1
+     */
+    public int indexOf(int vertexId) {
+        int index = Arrays.binarySearch(ids, vertexId);
+        return index < 0 ? -1 : index;
+    }
+
+    public int indexOf(Vertex vertex) {
+        return indexOf(vertex.getId());
+    }
+
+    /**
+     * 稠密下标 -> 顶点ID
+     */
+    public int idOf(int index) {
+        return ids[index];
+    }
+
+    public Vertex vertexOf(int index) {
+        return vertices[index];
+    }
+
+    public int outDegree(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+
+    // 边 ***************************************************************************************************************
+    /**
+     * 顶点出边区间起点(包含)
+     */
+    public int edgeBegin(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * 顶点出边区间终点(不包含)
+     */
+    public int edgeEnd(int index) {
+        return offsets[index + 1];
+    }
+
+    /**
+     * 边终点的稠密下标
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public int weight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * 边下标对应的原始边, 反向图中返回被反转的原始边
+     */
+    public Edge edgeOf(int edge) {
+        return edges[edge];
+    }
+
+    public int getMinWeight() {
+        return minWeight;
+    }
+
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+
+
+    // 反向图 ***********************************************************************************************************
+    /**
+     * 反向图: 顶点下标与原图一致, 每条边 u->v 变为 v->u, edgeOf 仍返回原始边
+     *  首次调用时构建并缓存 时间复杂度 O(V+E)
+     */
+    public CsrGraph transpose() {
+        CsrGraph t = transpose;
+        if (t == null) {
+            synchronized (this) {
+                t = transpose;
+                if (t == null) {
+                    t = buildTranspose();
+                    t.transpose = this;
+                    transpose = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    private CsrGraph buildTranspose() {
+        int n = vertexNum;
+        int[] rOffsets = new int[n + 1];
+        for (int e = 0; e < edgeNum; e++) {
+            rOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            rOffsets[v + 1] += rOffsets[v];
+        }
+
+        int[] cursor = Arrays.copyOf(rOffsets, n);
+        int[] rTargets = new int[edgeNum];
+        int[] rWeights = new int[edgeNum];
+        Edge[] rEdges = new Edge[edgeNum];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int pos = cursor[targets[e]]++;
+                rTargets[pos] = u;
+                rWeights[pos] = weights[e];
+                rEdges[pos] = edges[e];
+            }
+        }
+        return new CsrGraph(ids, vertices, rOffsets, rTargets, rWeights, rEdges);
+    }
+
+}
@@ -2,7 +2,9 @@ package org.algds.graph.adjacency;
 
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Graph {
 
@@ -10,6 +12,8 @@ public class Graph {
 
     private Integer vertexNum;
     private Integer edgeNum;
+    private int modCount; // 修改次数, 每次addVertex/addEdge/setEdgeWeight加1, 供缓存判断结果是否过期
+    private final List<GraphListener> listeners = new CopyOnWriteArrayList<>();
 
 
     public Graph(){
@@ -30,6 +34,10 @@ public class Graph {
         return edgeNum;
     }
 
+    public int getModCount() {
+        return modCount;
+    }
+
     public Vertex getVertex(Integer vertexId){
         return this.getVertices().get(vertexId);
     }
@@ -41,22 +49,56 @@ public class Graph {
     public void addVertex(Vertex vertex){
         this.getVertices().put(vertex.getId(),vertex);
         this.vertexNum++;
+        this.modCount++;
+        for (GraphListener listener : listeners) {
+            listener.vertexAdded(vertex);
+        }
     }
 
+    // 起点已有相同ID的边时覆盖该边, 边数不变, 监听器收到edgeReplaced
     public void addEdge(Edge edge){
-        this.getVertices().get(edge.getFrom().getId()).addEdge(edge);
-        this.edgeNum++;
+        Edge old = this.getVertices().get(edge.getFrom().getId()).addEdge(edge);
+        if (null == old) {
+            this.edgeNum++;
+        }
+        this.modCount++;
+        for (GraphListener listener : listeners) {
+            if (null == old) {
+                listener.edgeAdded(edge);
+            } else {
+                listener.edgeReplaced(old, edge);
+            }
+        }
     }
 
     public void addEdge(Vertex from, Vertex to, int weight, Label label){
-        Edge edge = new Edge(from, to, weight, label);
-        this.getVertices().get(edge.getFrom().getId()).addEdge(edge);
-        this.edgeNum++;
+        addEdge(new Edge(from, to, weight, label));
     }
 
     public void addEdge(Integer id, Vertex from, Vertex to, int weight, Label label){
-        Edge edge = new Edge(id, from, to, weight, label);
-        this.getVertices().get(edge.getFrom().getId()).addEdge(edge);
-        this.edgeNum++;
+        addEdge(new Edge(id, from, to, weight, label));
+    }
+
+    /**
+     * 修改边权并通知监听器, 权重不变时什么也不做
+     */
+    public void setEdgeWeight(Edge edge, int weight){
+        int oldWeight = edge.getWeight();
+        if (oldWeight == weight) {
+            return;
+        }
+        edge.setWeight(weight);
+        this.modCount++;
+        for (GraphListener listener : listeners) {
+            listener.edgeWeightChanged(edge, oldWeight);
+        }
+    }
+
+    public void addListener(GraphListener listener){
+        listeners.add(listener);
+    }
+
+    public void removeListener(GraphListener listener){
+        listeners.remove(listener);
     }
 }
@@ -0,0 +1,24 @@
+package org.algds.graph.adjacency;
+
+/**
+ * 图修改监听器: 通过Graph的方法修改图后同步回调, 回调时修改已经生效
+ *  直接调用Vertex.addEdge或Edge.setWeight不会触发回调
+ */
+public interface GraphListener {
+
+    default void vertexAdded(Vertex vertex) {
+    }
+
+    default void edgeAdded(Edge edge) {
+    }
+
+    /**
+     * Graph.addEdge 覆盖了起点上相同ID的边, 回调时oldEdge已不在图中; 默认按新增newEdge处理
+     */
+    default void edgeReplaced(Edge oldEdge, Edge newEdge) {
+        edgeAdded(newEdge);
+    }
+
+    default void edgeWeightChanged(Edge edge, int oldWeight) {
+    }
+}
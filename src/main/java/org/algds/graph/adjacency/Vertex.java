@@ -1,10 +1,12 @@
 package org.algds.graph.adjacency;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class Vertex {
     private static final AtomicInteger nodeIdCounter = new AtomicInteger(1);
@@ -16,6 +18,8 @@ public class Vertex {
     private Map<String, Object> properties; // 属性
 
     private Map<Integer,Edge> edgeList; // 邻接顶点列表
+    private List<Edge> edges;           // 邻接边顺序表,与edgeList同步维护,按添加顺序排列
+    private List<Edge> edgesView;       // edges的只读视图
 
 
     public Vertex(String name, Label label) {
@@ -24,6 +28,8 @@ public class Vertex {
         this.label = label;
         this.properties = new HashMap<>();
         this.edgeList = new HashMap<>();
+        this.edges = new ArrayList<>();
+        this.edgesView = Collections.unmodifiableList(this.edges);
     }
 
     public Vertex(Integer id, String name, Label label) {
@@ -32,6 +38,8 @@ public class Vertex {
         this.label = label;
         this.properties = new HashMap<>();
         this.edgeList = new HashMap<>();
+        this.edges = new ArrayList<>();
+        this.edgesView = Collections.unmodifiableList(this.edges);
     }
 
 
@@ -55,8 +63,30 @@ public class Vertex {
         return properties;
     }
 
+    /**
+     * 邻接边列表副本,每次调用都会复制一份新的列表
+     */
     public List<Edge> getEdgeList() {
-        return new ArrayList<>(this.edgeList.values());
+        return new ArrayList<>(this.edges);
+    }
+
+    /**
+     * 邻接边只读实时视图,不复制
+     *  算法内层循环应按下标遍历该视图: for (int i = 0; i < edges.size(); i++) edges.get(i)
+     */
+    public List<Edge> getEdges() {
+        return this.edgesView;
+    }
+
+    public int getOutDegree() {
+        return this.edges.size();
+    }
+
+    // 依次访问每条邻接边,不分配迭代器
+    public void forEachEdge(Consumer<? super Edge> action) {
+        for (int i = 0; i < this.edges.size(); i++) {
+            action.accept(this.edges.get(i));
+        }
     }
 
     public Object getProperty(String key) {
@@ -70,14 +100,19 @@ public class Vertex {
         return nodeIdCounter.getAndIncrement();
     }
 
-    // 添加邻接边
-    public void addEdge(Edge edge) {
-        this.edgeList.put(edge.getId(),edge);
+    // 添加邻接边, 返回被覆盖的相同ID的边, 没有则为null
+    public Edge addEdge(Edge edge) {
+        Edge old = this.edgeList.put(edge.getId(),edge);
+        if (null == old) {
+            this.edges.add(edge);
+        } else {
+            this.edges.set(this.edges.indexOf(old), edge); // 相同ID的边覆盖原位置
+        }
+        return old;
     }
 
     public void addEdge(Vertex to, int weight, Label label) {
-        Edge edge = new Edge(this, to, weight, label);
-        this.edgeList.put(edge.getId(),edge);
+        addEdge(new Edge(this, to, weight, label));
     }
 
     @Override
@@ -0,0 +1,344 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.algds.graph.algorithm.ShortestPath.INF;
+
+/**
+ * Bellman-Ford 单源最短路径, 允许负权边, 检测并报告从源点可达的负权环
+ *  1 按轮松弛: 每轮松弛所有边, 最短路径最多 n - 1 条边, 因此 n - 1 轮后收敛; 某轮没有任何更新时提前结束
+ *    第n轮仍有更新说明存在可达的负权环
+ *    边展开为扁平数组(起点、终点、权重), 每轮按边区间在ForkJoinPool上并行; 距离与前驱打包为一个long, 以CAS原子更新
+ *  2 SPFA: 只松弛距离变化过的顶点的出边, 以队列保存待松弛顶点; 记录每个顶点当前路径的边数, 达到n时前驱链上存在环
+ *
+ * 负权环以顶点下标数组返回, 按边的方向排列: cycle[i] -> cycle[i + 1] -> ... -> cycle[0]
+ * 存在负权环时dist/pred中受环影响的顶点没有意义
+ */
+public class BellmanFord {
+
+    private static final int GRAIN = 4096; // 并行松弛的叶子任务边数
+
+    /**
+     * Bellman-Ford 计算单源最短路径, 结果结构与ShortestPath.dijkstra一致
+     *
+     * @throws IllegalArgumentException 从源点可达负权环, 异常信息中列出环上的顶点
+     */
+    public static Map<String, Map<Integer, Integer>> bellmanFord(Graph graph, Vertex start) {
+        CsrGraph csr = CsrGraph.of(graph);
+        int n = csr.getVertexNum();
+        int[] dist = new int[n];
+        int[] pred = new int[n];
+        int[] cycle = bellmanFord(csr, csr.indexOf(start), dist, pred, ForkJoinPool.commonPool());
+        if (cycle != null) {
+            throw new IllegalArgumentException("存在负权环: " + format(csr, cycle));
+        }
+        return ShortestPath.toResultMap(csr, dist, pred);
+    }
+
+    /**
+     * 按轮并行松弛全部边 (CSR快照版本)
+     *
+     * @param dist 输出: 距离, 不可达为INF
+     * @param pred 输出: 前一个顶点下标, 源点及不可达顶点为-1
+     * @return 从源点可达的负权环, 不存在时为null
+     */
+    public static int[] bellmanFord(CsrGraph csr, int source, int[] dist, int[] pred, ForkJoinPool pool) {
+        int n = csr.getVertexNum();
+        int m = csr.getEdgeNum();
+
+        // 扁平边数组
+        int[] from = new int[m], to = new int[m], weight = new int[m];
+        for (int u = 0; u < n; u++) {
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                from[e] = u;
+                to[e] = csr.target(e);
+                weight[e] = csr.weight(e);
+            }
+        }
+
+        AtomicLongArray state = new AtomicLongArray(n);
+        for (int v = 0; v < n; v++) {
+            state.set(v, pack(INF, -1));
+        }
+        state.set(source, pack(0, -1));
+
+        int changed = -1;
+        for (int round = 1; round <= n; round++) {
+            changed = pool.invoke(new RelaxTask(from, to, weight, state, 0, m));
+            if (changed == -1) break; // 本轮没有更新, 已收敛
+        }
+        for (int v = 0; v < n; v++) {
+            long packed = state.get(v);
+            dist[v] = distOf(packed);
+            pred[v] = predOf(packed);
+        }
+        if (changed == -1) {
+            return null;
+        }
+
+        // 第n轮仍有更新: 从被更新的顶点沿前驱回溯找到环; 并行更新下找不到时由SPFA确认
+        int[] cycle = findCycle(changed, pred);
+        return cycle != null ? cycle : spfa(csr, source, dist, pred);
+    }
+
+    /**
+     * SPFA: 队列优化的Bellman-Ford (CSR快照版本)
+     *
+     * @return 从源点可达的负权环, 不存在时为null
+     */
+    public static int[] spfa(CsrGraph csr, int source, int[] dist, int[] pred) {
+        int n = csr.getVertexNum();
+        Arrays.fill(dist, 0, n, INF);
+        Arrays.fill(pred, 0, n, -1);
+        dist[source] = 0;
+        return relax(csr, dist, pred, new int[]{source});
+    }
+
+    /**
+     * 势能: 添加一个到所有顶点权重为0的虚拟源点后的最短距离, h[v] <= 0, 满足 w(u,v) + h[u] - h[v] >= 0
+     *  全部边权非负时全为0
+     *
+     * @throws IllegalArgumentException 图中存在负权环
+     */
+    public static int[] potentials(CsrGraph csr) {
+        int n = csr.getVertexNum();
+        int[] h = new int[n];
+        if (csr.getMinWeight() >= 0) {
+            return h;
+        }
+        int[] pred = new int[n];
+        int[] all = new int[n];
+        for (int v = 0; v < n; v++) {
+            all[v] = v;
+            pred[v] = -1;
+        }
+        int[] cycle = relax(csr, h, pred, all);
+        if (cycle != null) {
+            throw new IllegalArgumentException("存在负权环: " + format(csr, cycle));
+        }
+        return h;
+    }
+
+    /**
+     * 从初始顶点开始的SPFA, dist中已有初始距离
+     *  length[v] 为v当前前驱链的边数, 达到n时沿前驱回溯: 找到环即为负权环, 否则按实际链长修正后继续
+     */
+    private static int[] relax(CsrGraph csr, int[] dist, int[] pred, int[] initial) {
+        int n = csr.getVertexNum();
+        int[] queue = new int[n + 1]; // 循环队列, 每个顶点至多在队列中出现一次
+        boolean[] queued = new boolean[n];
+        int[] length = new int[n];
+        int head = 0, tail = 0, size = 0;
+        for (int v : initial) {
+            queue[tail++] = v;
+            queued[v] = true;
+            size++;
+        }
+
+        while (size > 0) {
+            int u = queue[head];
+            head = head + 1 == queue.length ? 0 : head + 1;
+            size--;
+            queued[u] = false;
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                int v = csr.target(e);
+                long newDist = (long) dist[u] + csr.weight(e);
+                if (newDist >= dist[v]) continue;
+
+                dist[v] = (int) newDist;
+                pred[v] = u;
+                length[v] = length[u] + 1;
+                if (length[v] >= n) {
+                    int[] cycle = findCycle(v, pred);
+                    if (cycle != null) return cycle;
+                    length[v] = chainLength(v, pred);
+                }
+                if (!queued[v]) {
+                    queue[tail] = v;
+                    tail = tail + 1 == queue.length ? 0 : tail + 1;
+                    queued[v] = true;
+                    size++;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 从v沿前驱回溯, 遇到重复顶点时返回该环(按边的方向排列), 到达链首时返回null
+     *  前驱图中的环一定是负权环: 设置 pred[y] = x 时 dist[y] = dist[x] + w, 之后dist[x]只会变小
+     */
+    static int[] findCycle(int v, int[] pred) {
+        int n = pred.length;
+        int[] order = new int[n]; // 回溯时的访问序号 + 1
+        int step = 0;
+        int x = v;
+        while (x != -1 && order[x] == 0) {
+            order[x] = ++step;
+            x = pred[x];
+        }
+        if (x == -1) {
+            return null;
+        }
+        int size = step - order[x] + 1;
+        int[] cycle = new int[size];
+        for (int i = size - 1, y = x; i >= 0; i--, y = pred[y]) {
+            cycle[i] = y; // 回溯方向与边的方向相反, 从后往前填
+        }
+        return cycle;
+    }
+
+    private static int chainLength(int v, int[] pred) {
+        int length = 0;
+        for (int x = pred[v]; x != -1; x = pred[x]) {
+            length++;
+        }
+        return length;
+    }
+
+    private static String format(CsrGraph csr, int[] cycle) {
+        StringBuilder s = new StringBuilder();
+        for (int v : cycle) {
+            s.append(csr.vertexOf(v).getName()).append(" -> ");
+        }
+        return s.append(csr.vertexOf(cycle[0]).getName()).toString();
+    }
+
+    // 距离在高32位, 比较打包值即比较距离
+    private static long pack(int dist, int pred) {
+        return ((long) dist << 32) | (pred & 0xFFFFFFFFL);
+    }
+
+    private static int distOf(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int predOf(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * 一轮中松弛边区间 [lo, hi), 返回任意一个被更新的顶点, 没有更新时返回-1
+     */
+    @SuppressWarnings("serial")
+    private static class RelaxTask extends RecursiveTask<Integer> {
+        final int[] from, to, weight;
+        final AtomicLongArray state;
+        final int lo, hi;
+
+        RelaxTask(int[] from, int[] to, int[] weight, AtomicLongArray state, int lo, int hi) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.state = state;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                RelaxTask left = new RelaxTask(from, to, weight, state, lo, mid);
+                left.fork();
+                int right = new RelaxTask(from, to, weight, state, mid, hi).compute();
+                int l = left.join();
+                return l != -1 ? l : right;
+            }
+            int changed = -1;
+            for (int e = lo; e < hi; e++) {
+                int du = distOf(state.get(from[e]));
+                if (du == INF) continue;
+                long newDist = (long) du + weight[e];
+                int v = to[e];
+                while (true) {
+                    long current = state.get(v);
+                    if (newDist >= distOf(current)) break;
+                    if (state.compareAndSet(v, current, pack((int) newDist, from[e]))) {
+                        changed = v;
+                        break;
+                    }
+                }
+            }
+            return changed;
+        }
+    }
+
+
+    /**
+     * 含负权边、没有负权环的随机图, 每个顶点degree条出边
+     *  先生成非负边权, 再按随机势能p改为 w - p(u) + p(v), 环的总权重不变, 因此没有负权环
+     */
+    static Graph randomGraph(int n, int degree, long seed) {
+        Random random = new Random(seed);
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        Graph graph = new Graph();
+        Vertex[] vertices = new Vertex[n];
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            graph.addVertex(vertices[i]);
+            p[i] = random.nextInt(50);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < degree; d++) {
+                int j = random.nextInt(n);
+                graph.addEdge(edgeId++, vertices[i], vertices[j], random.nextInt(100) - p[i] + p[j], edgeLabel);
+            }
+        }
+        return graph;
+    }
+
+
+    /**
+     * 含负权边的随机图与Floyd比对, 再加入一个负权环
+     */
+    public static void main(String[] args) {
+        int n = 400, degree = 3;
+        Graph graph = randomGraph(n, degree, 42);
+        Label edgeLabel = new Label("E", 2);
+
+        CsrGraph csr = CsrGraph.of(graph);
+        int[] expected = FloydAlgorithm.floyd(csr, null);
+        int[] dist = new int[n], pred = new int[n];
+        int errors = 0;
+        for (int s = 0; s < n; s++) {
+            if (bellmanFord(csr, s, dist, pred, ForkJoinPool.commonPool()) != null) errors++;
+            for (int v = 0; v < n; v++) if (dist[v] != expected[s * n + v]) errors++;
+            if (spfa(csr, s, dist, pred) != null) errors++;
+            for (int v = 0; v < n; v++) if (dist[v] != expected[s * n + v]) errors++;
+        }
+        System.out.println(String.format("顶点 %s, 边 %s, 最小边权 %s: 与Floyd比对错误%s个", n, csr.getEdgeNum(), csr.getMinWeight(), errors));
+
+        // 加入负权环 v1 -> v2 -> v3 -> v1
+        int edgeId = n * degree + 1;
+        Vertex v1 = graph.getVertex(1), v2 = graph.getVertex(2), v3 = graph.getVertex(3);
+        graph.addEdge(edgeId++, v1, v2, 5, edgeLabel);
+        graph.addEdge(edgeId++, v2, v3, -20, edgeLabel);
+        graph.addEdge(edgeId++, v3, v1, 5, edgeLabel);
+        csr = CsrGraph.of(graph);
+        int[] cycle = bellmanFord(csr, 0, dist, pred, ForkJoinPool.commonPool());
+        System.out.println("bellmanFord 负权环: " + (cycle == null ? "无" : format(csr, cycle)));
+        cycle = spfa(csr, 0, dist, pred);
+        System.out.println("spfa 负权环: " + (cycle == null ? "无" : format(csr, cycle)));
+        try {
+            bellmanFord(graph, v1);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,768 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Edge;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+import org.algds.tree.ds.IndexedBinaryHeap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Stack;
+
+import static org.algds.graph.algorithm.ShortestPath.INF;
+
+/**
+ * 收缩层次(Contraction Hierarchies) 点到点最短路径索引
+ *
+ * 预处理: 按优先级(边差 + 已收缩邻居数)依次收缩顶点v, 对每对 u -> v -> w,
+ *        若不经过v时u到w的局部最短距离(见证路径)大于 w(u,v) + w(v,w), 则添加捷径边 u -> w
+ *        捷径边记录被替代的两条子边, 收缩顺序即顶点的层级rank
+ * 查询:   正向只沿 rank 递增的边搜索, 反向只沿 rank 递减的边逆向搜索, 双向结果在最高层级顶点相遇
+ *        出堆顶点若可由更高层的已访问顶点以更短距离到达则不再扩展(stall-on-demand)
+ *        每侧搜索空间只有几百个顶点, 路径中的捷径边递归展开为原始边
+ *
+ * 索引本身不可变, 可以序列化到文件并被多个线程共享; 查询状态在Query中, 每个线程各持有一个
+ * 原图中的重边只保留权重最小的一条, 自环被忽略; 要求边权非负
+ */
+public class ContractionHierarchy {
+
+    private static final int MAGIC = 0x43480001;   // 文件头: "CH" + 版本1
+    private static final int WITNESS_LIMIT = 500;         // 见证搜索最多出堆的顶点数, 超出时保守地添加捷径
+    private static final int SIMULATE_WITNESS_LIMIT = 50; // 计算优先级时模拟收缩使用的见证搜索上限
+
+    // 顶点: 稠密下标按顶点ID升序排列
+    private final int[] ids;
+    private final int[] rank;
+
+    // 边(原始边与捷径边): 原始边 first = second = -1, edgeId为原图边ID; 捷径边 first/second 为两条子边, edgeId = -1
+    private final int[] arcFrom, arcTo, arcWeight, arcFirst, arcSecond, arcEdgeId;
+
+    // 查询图: upXxx[v] 为 v -> w 且 rank[w] > rank[v] 的边; downXxx[v] 为 u -> v 且 rank[u] > rank[v] 的边, 头为u
+    private final int[] upOffsets, upHead, upArc;
+    private final int[] downOffsets, downHead, downArc;
+
+    private ContractionHierarchy(int[] ids, int[] rank, int[] arcFrom, int[] arcTo, int[] arcWeight,
+                                 int[] arcFirst, int[] arcSecond, int[] arcEdgeId) {
+        this.ids = ids;
+        this.rank = rank;
+        this.arcFrom = arcFrom;
+        this.arcTo = arcTo;
+        this.arcWeight = arcWeight;
+        this.arcFirst = arcFirst;
+        this.arcSecond = arcSecond;
+        this.arcEdgeId = arcEdgeId;
+
+        int n = ids.length;
+        int m = arcFrom.length;
+        upOffsets = new int[n + 1];
+        downOffsets = new int[n + 1];
+        for (int a = 0; a < m; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) upOffsets[arcFrom[a] + 1]++;
+            else downOffsets[arcTo[a] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        upHead = new int[upOffsets[n]];
+        upArc = new int[upOffsets[n]];
+        downHead = new int[downOffsets[n]];
+        downArc = new int[downOffsets[n]];
+        int[] upPos = Arrays.copyOf(upOffsets, n);
+        int[] downPos = Arrays.copyOf(downOffsets, n);
+        for (int a = 0; a < m; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) {
+                int p = upPos[arcFrom[a]]++;
+                upHead[p] = arcTo[a];
+                upArc[p] = a;
+            } else {
+                int p = downPos[arcTo[a]]++;
+                downHead[p] = arcFrom[a];
+                downArc[p] = a;
+            }
+        }
+    }
+
+
+    // 1 预处理 *********************************************************************************************************
+
+    /**
+     * 由邻接表图构建收缩层次
+     */
+    public static ContractionHierarchy build(Graph graph) {
+        return build(CsrGraph.of(graph));
+    }
+
+    /**
+     * 由CSR快照构建收缩层次
+     */
+    public static ContractionHierarchy build(CsrGraph csr) {
+        if (csr.getEdgeNum() > 0 && csr.getMinWeight() < 0) {
+            throw new IllegalArgumentException("收缩层次要求边权非负");
+        }
+        return new Builder(csr).build();
+    }
+
+    private static class Builder {
+        final int n;
+        final int[] ids;
+
+        // 全部边, 按创建顺序编号
+        final IntList from = new IntList(), to = new IntList(), weight = new IntList();
+        final IntList first = new IntList(), second = new IntList(), edgeId = new IntList();
+        final IntList replaced = new IntList(); // 1 表示已被更短的捷径替代
+
+        // 剩余图: 每个未收缩顶点的出边/入边编号, 只包含两端都未收缩且未被替代的边
+        final IntList[] out, in;
+        final int[] deleted;  // 已收缩的邻居数
+        final int[] rank;
+        final int[] touched;  // 邻居更新去重
+        final int[] level;    // 已收缩邻居的最大层数 + 1
+
+        // 见证搜索
+        final int[] witnessDist, witnessStamp, witnessTarget;
+        final IndexedBinaryHeap witnessHeap;
+        int witnessQuery;
+
+        Builder(CsrGraph csr) {
+            n = csr.getVertexNum();
+            ids = new int[n];
+            out = new IntList[n];
+            in = new IntList[n];
+            for (int v = 0; v < n; v++) {
+                ids[v] = csr.idOf(v);
+                out[v] = new IntList();
+                in[v] = new IntList();
+            }
+            deleted = new int[n];
+            rank = new int[n];
+            touched = new int[n];
+            level = new int[n];
+            Arrays.fill(touched, -1);
+            witnessDist = new int[n];
+            witnessStamp = new int[n];
+            witnessTarget = new int[n];
+            witnessHeap = new IndexedBinaryHeap(n);
+
+            // 原始边, 重边保留权重最小的一条
+            int[] arcTo = new int[n];
+            int[] seen = new int[n];
+            Arrays.fill(seen, -1);
+            for (int u = 0; u < n; u++) {
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    int v = csr.target(e);
+                    if (v == u) continue;
+                    if (seen[v] == u) {
+                        int a = arcTo[v];
+                        if (csr.weight(e) < weight.get(a)) {
+                            weight.set(a, csr.weight(e));
+                            edgeId.set(a, csr.edgeOf(e).getId());
+                        }
+                        continue;
+                    }
+                    seen[v] = u;
+                    arcTo[v] = addArc(u, v, csr.weight(e), -1, -1, csr.edgeOf(e).getId());
+                    out[u].add(arcTo[v]);
+                    in[v].add(arcTo[v]);
+                }
+            }
+        }
+
+        ContractionHierarchy build() {
+            IndexedBinaryHeap queue = new IndexedBinaryHeap(n);
+            for (int v = 0; v < n; v++) {
+                queue.insert(v, priority(v));
+            }
+
+            int order = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.deleteMin();
+                long p = priority(v);
+                if (!queue.isEmpty() && p > queue.findMinKey()) { // 延迟更新: 优先级变大则放回队列
+                    queue.insert(v, p);
+                    continue;
+                }
+
+                contract(v, true);
+                rank[v] = order;
+
+                // 从邻居的列表中移除与v相连的边
+                for (int i = 0; i < out[v].size; i++) in[to.get(out[v].get(i))].remove(out[v].get(i));
+                for (int i = 0; i < in[v].size; i++) out[from.get(in[v].get(i))].remove(in[v].get(i));
+
+                // 更新剩余邻居的已收缩邻居数与层数, 优先级在出队时重新计算
+                for (int pass = 0; pass < 2; pass++) {
+                    IntList arcs = pass == 0 ? out[v] : in[v];
+                    for (int i = 0; i < arcs.size; i++) {
+                        int a = arcs.get(i);
+                        int x = pass == 0 ? to.get(a) : from.get(a);
+                        if (touched[x] == order) continue;
+                        touched[x] = order;
+                        deleted[x]++;
+                        level[x] = Math.max(level[x], level[v] + 1);
+                    }
+                }
+                order++;
+            }
+            return compact();
+        }
+
+        // 优先级: 2 * 边差(新增捷径数 - 删除边数) + 已收缩邻居数 + 层数, 层数使收缩在图中均匀推进
+        long priority(int v) {
+            return 2 * (contract(v, false) - out[v].size - in[v].size) + deleted[v] + level[v];
+        }
+
+        /**
+         * 收缩顶点v: apply为false时只统计需要的捷径数
+         */
+        int contract(int v, boolean apply) {
+            int shortcuts = 0;
+            for (int i = 0; i < in[v].size; i++) {
+                int a = in[v].get(i);
+                int u = from.get(a);
+
+                int maxVia = -1;
+                for (int j = 0; j < out[v].size; j++) {
+                    int b = out[v].get(j);
+                    int w = to.get(b);
+                    if (w != u) maxVia = Math.max(maxVia, weight.get(a) + weight.get(b));
+                }
+                if (maxVia < 0) continue;
+
+                witness(u, v, maxVia, apply ? WITNESS_LIMIT : SIMULATE_WITNESS_LIMIT);
+                for (int j = 0; j < out[v].size; j++) {
+                    int b = out[v].get(j);
+                    int w = to.get(b);
+                    if (w == u) continue;
+                    int via = weight.get(a) + weight.get(b);
+                    if (witnessStamp[w] == witnessQuery && witnessDist[w] <= via) continue; // 存在见证路径
+                    shortcuts++;
+                    if (apply) addShortcut(u, w, via, a, b);
+                }
+            }
+            return shortcuts;
+        }
+
+        // 在剩余图中不经过v, 从u出发的局部Dijkstra; v的出边终点全部出堆、距离超过maxDist或出堆顶点过多时停止
+        void witness(int u, int v, int maxDist, int limit) {
+            witnessHeap.makeEmpty();
+            witnessQuery++;
+            int targets = 0;
+            for (int j = 0; j < out[v].size; j++) {
+                int w = to.get(out[v].get(j));
+                if (w != u && witnessTarget[w] != witnessQuery) {
+                    witnessTarget[w] = witnessQuery;
+                    targets++;
+                }
+            }
+
+            witnessStamp[u] = witnessQuery;
+            witnessDist[u] = 0;
+            witnessHeap.insert(u, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && witnessHeap.findMinKey() <= maxDist && settled++ < limit) {
+                int x = witnessHeap.deleteMin();
+                if (witnessTarget[x] == witnessQuery && --targets == 0) break;
+                for (int i = 0; i < out[x].size; i++) {
+                    int a = out[x].get(i);
+                    int y = to.get(a);
+                    if (y == v) continue;
+                    int d = witnessDist[x] + weight.get(a);
+                    if (witnessStamp[y] != witnessQuery || d < witnessDist[y]) {
+                        witnessStamp[y] = witnessQuery;
+                        witnessDist[y] = d;
+                        witnessHeap.insertOrDecrease(y, d);
+                    }
+                }
+            }
+        }
+
+        void addShortcut(int u, int w, int via, int a, int b) {
+            int old = -1;
+            for (int i = 0; i < out[u].size; i++) {
+                if (to.get(out[u].get(i)) == w) {
+                    old = out[u].get(i);
+                    break;
+                }
+            }
+            if (old != -1 && weight.get(old) <= via) return;
+
+            int arc = addArc(u, w, via, a, b, -1);
+            if (old == -1) {
+                out[u].add(arc);
+                in[w].add(arc);
+            } else { // 原有的 u -> w 更长, 在剩余图中替换
+                out[u].replace(old, arc);
+                in[w].replace(old, arc);
+                replaced.set(old, 1);
+            }
+        }
+
+        int addArc(int u, int v, int w, int a, int b, int id) {
+            from.add(u);
+            to.add(v);
+            weight.add(w);
+            first.add(a);
+            second.add(b);
+            edgeId.add(id);
+            replaced.add(0);
+            return from.size - 1;
+        }
+
+        // 丢弃被替代的边并重新编号; 被替代边的两端在替代时都未收缩, 之后也不会再出现在剩余图中, 因此不会是任何捷径的子边
+        ContractionHierarchy compact() {
+            int[] newId = new int[from.size];
+            Arrays.fill(newId, -1);
+            int m = 0;
+            for (int a = 0; a < from.size; a++) {
+                if (replaced.get(a) == 0) newId[a] = m++;
+            }
+            int[] f = new int[m], t = new int[m], w = new int[m], c1 = new int[m], c2 = new int[m], id = new int[m];
+            for (int a = 0; a < from.size; a++) {
+                int b = newId[a];
+                if (b == -1) continue;
+                f[b] = from.get(a);
+                t[b] = to.get(a);
+                w[b] = weight.get(a);
+                c1[b] = first.get(a) == -1 ? -1 : newId[first.get(a)];
+                c2[b] = second.get(a) == -1 ? -1 : newId[second.get(a)];
+                id[b] = edgeId.get(a);
+            }
+            return new ContractionHierarchy(ids, rank, f, t, w, c1, c2, id);
+        }
+    }
+
+    // 可增长int数组
+    private static class IntList {
+        int[] items = new int[4];
+        int size;
+
+        void add(int x) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = x;
+        }
+
+        int get(int i) {
+            return items[i];
+        }
+
+        void set(int i, int x) {
+            items[i] = x;
+        }
+
+        // 删除元素x, 不保持顺序
+        void remove(int x) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == x) {
+                    items[i] = items[--size];
+                    return;
+                }
+            }
+        }
+
+        void replace(int x, int y) {
+            for (int i = 0; i < size; i++) if (items[i] == x) items[i] = y;
+        }
+    }
+
+
+    // 2 持久化 *********************************************************************************************************
+
+    public void save(File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            save(out);
+        }
+    }
+
+    /**
+     * 写出索引: 文件头、顶点ID与层级、全部边; 不关闭输出流
+     */
+    public void save(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(ids.length);
+        for (int v = 0; v < ids.length; v++) {
+            out.writeInt(ids[v]);
+            out.writeInt(rank[v]);
+        }
+        out.writeInt(arcFrom.length);
+        for (int a = 0; a < arcFrom.length; a++) {
+            out.writeInt(arcFrom[a]);
+            out.writeInt(arcTo[a]);
+            out.writeInt(arcWeight[a]);
+            out.writeInt(arcFirst[a]);
+            out.writeInt(arcSecond[a]);
+            out.writeInt(arcEdgeId[a]);
+        }
+        out.flush();
+    }
+
+    public static ContractionHierarchy load(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * 读取save写出的索引; 不关闭输入流
+     */
+    public static ContractionHierarchy load(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("不是收缩层次索引文件");
+        }
+        int n = in.readInt();
+        int[] ids = new int[n], rank = new int[n];
+        for (int v = 0; v < n; v++) {
+            ids[v] = in.readInt();
+            rank[v] = in.readInt();
+        }
+        int m = in.readInt();
+        int[] f = new int[m], t = new int[m], w = new int[m], c1 = new int[m], c2 = new int[m], id = new int[m];
+        for (int a = 0; a < m; a++) {
+            f[a] = in.readInt();
+            t[a] = in.readInt();
+            w[a] = in.readInt();
+            c1[a] = in.readInt();
+            c2[a] = in.readInt();
+            id[a] = in.readInt();
+        }
+        return new ContractionHierarchy(ids, rank, f, t, w, c1, c2, id);
+    }
+
+
+    // 3 查询 ***********************************************************************************************************
+
+    public int getVertexNum() {
+        return ids.length;
+    }
+
+    // 边总数, 包含捷径边
+    public int getArcNum() {
+        return arcFrom.length;
+    }
+
+    public int getShortcutNum() {
+        int count = 0;
+        for (int a : arcFirst) if (a != -1) count++;
+        return count;
+    }
+
+    public Query newQuery() {
+        return new Query();
+    }
+
+    /**
+     * 查询源点到终点的最短路径, 结果结构与ShortestPath.dijkstra一致, 只包含最短路径上的顶点
+     */
+    public Map<String, Map<Integer, Integer>> query(Vertex start, Vertex end) {
+        Query query = newQuery();
+        query.distance(start.getId(), end.getId());
+        return query.toResultMap();
+    }
+
+    private int indexOf(int vertexId) {
+        int index = Arrays.binarySearch(ids, vertexId);
+        if (index < 0) {
+            throw new IllegalArgumentException(String.format("顶点%s不在索引中", vertexId));
+        }
+        return index;
+    }
+
+    /**
+     * 查询状态, 复用数组与堆, 非线程安全
+     */
+    public class Query {
+        private final int[] distF = new int[ids.length], predF = new int[ids.length], stampF = new int[ids.length];
+        private final int[] distB = new int[ids.length], succB = new int[ids.length], stampB = new int[ids.length];
+        private final IndexedBinaryHeap heapF = new IndexedBinaryHeap(ids.length);
+        private final IndexedBinaryHeap heapB = new IndexedBinaryHeap(ids.length);
+        private int query;
+
+        private int source = -1, meet = -1, distance = INF;
+        private int settled; // 出堆顶点数
+
+        private Query() {
+        }
+
+        /**
+         * 源点到终点的最短距离, 不可达为INF
+         *
+         * @param sourceId 源点ID
+         * @param targetId 终点ID
+         */
+        public int distance(int sourceId, int targetId) {
+            int s = indexOf(sourceId), t = indexOf(targetId);
+            heapF.makeEmpty();
+            heapB.makeEmpty();
+            if (++query == 0) {
+                Arrays.fill(stampF, 0);
+                Arrays.fill(stampB, 0);
+                query = 1;
+            }
+            stampF[s] = query;
+            distF[s] = 0;
+            predF[s] = -1;
+            stampB[t] = query;
+            distB[t] = 0;
+            succB[t] = -1;
+            heapF.insert(s, 0);
+            heapB.insert(t, 0);
+
+            settled = 0;
+            int mu = s == t ? 0 : INF, meet = s == t ? s : -1;
+            while (true) {
+                boolean forward = !heapF.isEmpty() && heapF.findMinKey() < mu;
+                boolean backward = !heapB.isEmpty() && heapB.findMinKey() < mu;
+                if (!forward && !backward) break;
+
+                settled++;
+                if (forward && (!backward || heapF.findMinKey() <= heapB.findMinKey())) {
+                    int u = heapF.deleteMin();
+                    if (stalled(u, distF, stampF, downOffsets, downHead, downArc)) continue;
+                    for (int p = upOffsets[u], end = upOffsets[u + 1]; p < end; p++) {
+                        int v = upHead[p], a = upArc[p];
+                        int d = distF[u] + arcWeight[a];
+                        if (stampF[v] != query || d < distF[v]) {
+                            stampF[v] = query;
+                            distF[v] = d;
+                            predF[v] = a;
+                            heapF.insertOrDecrease(v, d);
+                        }
+                        if (stampB[v] == query && (long) distF[v] + distB[v] < mu) {
+                            mu = distF[v] + distB[v];
+                            meet = v;
+                        }
+                    }
+                } else {
+                    int u = heapB.deleteMin();
+                    if (stalled(u, distB, stampB, upOffsets, upHead, upArc)) continue;
+                    for (int p = downOffsets[u], end = downOffsets[u + 1]; p < end; p++) {
+                        int v = downHead[p], a = downArc[p];
+                        int d = distB[u] + arcWeight[a];
+                        if (stampB[v] != query || d < distB[v]) {
+                            stampB[v] = query;
+                            distB[v] = d;
+                            succB[v] = a;
+                            heapB.insertOrDecrease(v, d);
+                        }
+                        if (stampF[v] == query && (long) distF[v] + distB[v] < mu) {
+                            mu = distF[v] + distB[v];
+                            meet = v;
+                        }
+                    }
+                }
+            }
+
+            this.source = s;
+            this.meet = meet;
+            this.distance = meet == -1 ? INF : mu;
+            return distance;
+        }
+
+        /**
+         * stall-on-demand: 若存在已访问的更高层顶点x, 经 x -> u 到达u比当前距离更短,
+         * 则u的当前距离不是最短距离, 不必继续扩展u
+         */
+        private boolean stalled(int u, int[] dist, int[] stamp, int[] offsets, int[] head, int[] arc) {
+            for (int p = offsets[u], end = offsets[u + 1]; p < end; p++) {
+                int x = head[p];
+                if (stamp[x] == query && (long) dist[x] + arcWeight[arc[p]] < dist[u]) return true;
+            }
+            return false;
+        }
+
+        // 最近一次查询中出堆的顶点数, 衡量搜索空间
+        public int getSettledCount() {
+            return settled;
+        }
+
+        /**
+         * 最近一次查询路径上的原图边ID, 捷径已全部展开, 不可达返回空数组
+         */
+        public int[] edgePath() {
+            if (distance == INF) return new int[0];
+            IntList path = new IntList();
+            IntList upward = new IntList(); // 源点 -> 相遇点 的边, 逆序
+            for (int v = meet; v != source; v = arcFrom[predF[v]]) upward.add(predF[v]);
+            for (int i = upward.size - 1; i >= 0; i--) unpack(upward.get(i), path);
+            for (int v = meet; succB[v] != -1; v = arcTo[succB[v]]) unpack(succB[v], path);
+            return Arrays.copyOf(path.items, path.size);
+        }
+
+        /**
+         * 最近一次查询路径上的顶点ID, 从源点到终点, 不可达返回空数组
+         */
+        public int[] vertexPath() {
+            if (distance == INF) return new int[0];
+            IntList arcs = new IntList();
+            IntList upward = new IntList();
+            for (int v = meet; v != source; v = arcFrom[predF[v]]) upward.add(predF[v]);
+            for (int i = upward.size - 1; i >= 0; i--) unpackArcs(upward.get(i), arcs);
+            for (int v = meet; succB[v] != -1; v = arcTo[succB[v]]) unpackArcs(succB[v], arcs);
+
+            int[] path = new int[arcs.size + 1];
+            path[0] = ids[source];
+            for (int i = 0; i < arcs.size; i++) path[i + 1] = ids[arcTo[arcs.get(i)]];
+            return path;
+        }
+
+        /**
+         * 最近一次查询的结果, 结构与ShortestPath.dijkstra一致, 只包含最短路径上的顶点
+         *  ShortestPath.reconstructPath(result.get("preVertex"), 终点ID) 可直接还原路径
+         */
+        public Map<String, Map<Integer, Integer>> toResultMap() {
+            Map<Integer, Integer> processed = new HashMap<>();
+            Map<Integer, Integer> dist = new HashMap<>();
+            Map<Integer, Integer> preVertex = new HashMap<>();
+            if (distance != INF) {
+                IntList arcs = new IntList();
+                IntList upward = new IntList();
+                for (int v = meet; v != source; v = arcFrom[predF[v]]) upward.add(predF[v]);
+                for (int i = upward.size - 1; i >= 0; i--) unpackArcs(upward.get(i), arcs);
+                for (int v = meet; succB[v] != -1; v = arcTo[succB[v]]) unpackArcs(succB[v], arcs);
+
+                int length = 0;
+                processed.put(ids[source], 1);
+                dist.put(ids[source], 0);
+                preVertex.put(ids[source], null);
+                for (int i = 0; i < arcs.size; i++) {
+                    int a = arcs.get(i);
+                    length += arcWeight[a];
+                    processed.put(ids[arcTo[a]], 1);
+                    dist.put(ids[arcTo[a]], length);
+                    preVertex.put(ids[arcTo[a]], ids[arcFrom[a]]);
+                }
+            }
+
+            Map<String, Map<Integer, Integer>> result = new HashMap<>();
+            result.put("processed", processed);
+            result.put("preVertex", preVertex);
+            result.put("dist", dist);
+            return result;
+        }
+
+        // 展开边a, 按顺序追加原图边ID
+        private void unpack(int a, IntList path) {
+            IntList arcs = new IntList();
+            unpackArcs(a, arcs);
+            for (int i = 0; i < arcs.size; i++) path.add(arcEdgeId[arcs.get(i)]);
+        }
+
+        // 展开边a, 按顺序追加原始边编号; 显式栈, 捷径嵌套层数不受调用栈限制
+        private void unpackArcs(int a, IntList path) {
+            IntList stack = new IntList();
+            stack.add(a);
+            while (stack.size > 0) {
+                int x = stack.items[--stack.size];
+                if (arcFirst[x] == -1) {
+                    path.add(x);
+                } else {
+                    stack.add(arcSecond[x]);
+                    stack.add(arcFirst[x]);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * 网格测试图: 构建索引、写入文件并重新加载, 随机查询与dijkstra对比
+     */
+    public static void main(String[] args) throws IOException {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        int rows = 150;
+        Random random = new Random(42);
+        Vertex[] vertices = new Vertex[rows * rows];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            graph.addVertex(vertices[i]);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < vertices.length; i++) {
+            if (i % rows + 1 < rows) {
+                graph.addEdge(edgeId++, vertices[i], vertices[i + 1], 1 + random.nextInt(100), edgeLabel);
+                graph.addEdge(edgeId++, vertices[i + 1], vertices[i], 1 + random.nextInt(100), edgeLabel);
+            }
+            if (i + rows < vertices.length) {
+                graph.addEdge(edgeId++, vertices[i], vertices[i + rows], 1 + random.nextInt(100), edgeLabel);
+                graph.addEdge(edgeId++, vertices[i + rows], vertices[i], 1 + random.nextInt(100), edgeLabel);
+            }
+        }
+
+        long start = System.nanoTime();
+        ContractionHierarchy built = build(graph);
+        System.out.println(String.format("构建耗时 %s ms, 顶点 %s, 原始边 %s, 捷径边 %s",
+                (System.nanoTime() - start) / 1_000_000, built.getVertexNum(), graph.getEdgeNum(), built.getShortcutNum()));
+
+        File file = File.createTempFile("contraction", ".bin");
+        file.deleteOnExit();
+        built.save(file);
+        ContractionHierarchy ch = load(file);
+        System.out.println(String.format("索引文件 %s 字节", file.length()));
+
+        // 兼容Map结果与reconstructPath
+        Vertex from = vertices[0], to = vertices[rows * 3 + 5];
+        Map<String, Map<Integer, Integer>> result = ch.query(from, to);
+        Stack<Integer> path = ShortestPath.reconstructPath(result.get("preVertex"), to.getId());
+        System.out.print(String.format("%s -> %s 路长 %s: ", from.getName(), to.getName(), result.get("dist").get(to.getId())));
+        while (!path.isEmpty()) {
+            System.out.print(String.format("%s ->", graph.getVertexName(path.pop())));
+        }
+        System.out.println();
+
+        // 随机查询: 距离与dijkstra一致, 展开后的原图边首尾相接且权重之和等于距离
+        CsrGraph csr = CsrGraph.of(graph);
+        Map<Integer, Edge> edges = new HashMap<>();
+        for (Vertex vertex : vertices) {
+            for (Edge edge : vertex.getEdges()) edges.put(edge.getId(), edge);
+        }
+        Query query = ch.newQuery();
+        int n = csr.getVertexNum();
+        int[] dist = new int[n], pred = new int[n];
+        int queries = 300, errors = 0;
+        long dijkstraTime = 0, chTime = 0;
+        for (int q = 0; q < queries; q++) {
+            Vertex s = vertices[random.nextInt(n)], t = vertices[random.nextInt(n)];
+            long t0 = System.nanoTime();
+            ShortestPath.dijkstra(csr, csr.indexOf(s), dist, pred);
+            long t1 = System.nanoTime();
+            int d = query.distance(s.getId(), t.getId());
+            chTime += System.nanoTime() - t1;
+            dijkstraTime += t1 - t0;
+
+            int at = s.getId(), length = 0;
+            for (int id : query.edgePath()) {
+                Edge edge = edges.get(id);
+                if (edge.getFrom().getId() != at) errors++;
+                at = edge.getTo().getId();
+                length += edge.getWeight();
+            }
+            if (d != dist[csr.indexOf(t)] || length != d || at != t.getId()) errors++;
+        }
+        System.out.println(String.format("%s次随机查询: 错误%s个, dijkstra平均 %s us, 收缩层次平均 %s us",
+                queries, errors, dijkstraTime / queries / 1000, chTime / queries / 1000));
+    }
+
+}
@@ -41,7 +41,9 @@ public class CriticalPath {
             Vertex vertex = topSortStack.pop();
             vl.put(vertex.getId(), vl.getOrDefault(vertex.getId(), ve.get(vertex.getId()))); // 初始化用最早完成时间
             Integer lCost = maxCost;
-            for (Edge adj : vertex.getEdgeList()) {
+            List<Edge> edges = vertex.getEdges();
+            for (int j = 0; j < edges.size(); j++) {
+                Edge adj = edges.get(j);
                 Vertex to = adj.getTo();
                 Integer newLCost = vl.getOrDefault(to.getId(), ve.get(to.getId())) - adj.getWeight(); // 后继节点最晚开始时间 - 弧成本
                 lCost = Math.min(lCost, newLCost);
@@ -66,7 +68,9 @@ public class CriticalPath {
         Map<Integer, Integer> indegree = new HashMap<>();
         for (Integer id : graph.getVertices().keySet()) {
             indegree.putIfAbsent(id, 0);
-            for (Edge edge : graph.getVertices().get(id).getEdgeList()) {
+            List<Edge> edges = graph.getVertices().get(id).getEdges();
+            for (int j = 0; j < edges.size(); j++) {
+                Edge edge = edges.get(j);
                 indegree.put(edge.getTo().getId(), indegree.getOrDefault(edge.getTo().getId(), 0) + 1);
             }
         }
@@ -90,8 +94,9 @@ public class CriticalPath {
             topSortStack.push(vertex);
             ve.put(vertexId, ve.getOrDefault(vertexId, 0));
 
-            List<Edge> neighbors = vertex.getEdgeList();
-            for (Edge neighbor : neighbors) {
+            List<Edge> neighbors = vertex.getEdges();
+            for (int j = 0; j < neighbors.size(); j++) {
+                Edge neighbor = neighbors.get(j);
                 Vertex to = neighbor.getTo();
                 indegree.put(to.getId(), indegree.get(to.getId()) - 1);
                 if (indegree.get(to.getId()) == 0) {
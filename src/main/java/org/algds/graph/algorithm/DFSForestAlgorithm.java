@@ -43,7 +43,9 @@ public class DFSForestAlgorithm {
         CSNode<Vertex> firstChild = null;  // 第一个孩子节点
         CSNode<Vertex> lastSibling = null; // 上一个兄弟节点
 
-        for (Edge edge : vertex.getEdgeList()) {
+        List<Edge> edges = vertex.getEdges();
+        for (int j = 0; j < edges.size(); j++) {
+            Edge edge = edges.get(j);
             Vertex to = edge.getTo();
             if (!visited.contains(to.getId())) {
                 CSNode<Vertex> p = new CSNode<>(to);
@@ -0,0 +1,434 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * DAG任务执行器: 图的每个顶点是一个任务, 边 u -> v 表示v依赖u
+ *  任务为顶点属性TASK中的Runnable或Callable, 没有该属性的顶点为空任务(用于汇聚依赖); 优先级为顶点属性PRIORITY(Number, 越大越优先, 缺省0)
+ *
+ *  1 提交时对图做CSR快照, 先用卡恩算法检查是否有环, 再把入度为0的任务放入就绪队列
+ *  2 就绪队列按优先级排序; 每个任务就绪时向ForkJoinPool提交一个执行令牌, 令牌运行时取出当前优先级最高的就绪任务执行
+ *    令牌在工作线程之间通过工作窃取均衡, 优先级由共享的就绪队列保证
+ *  3 任务结束后后继的入度原子减1, 减到0即就绪, 不等待同一层的其他任务
+ *  4 任务失败时它的全部后继(传递闭包)不再执行, 状态为SKIPPED, 与其无关的分支继续执行; failFast时同时取消整个执行
+ *  5 取消后不再启动新任务, 正在运行的任务执行完为止, 其余任务状态为CANCELLED
+ *
+ * 每个任务记录就绪、开始、结束时刻(相对提交时刻的纳秒数)
+ * 任务在ForkJoinPool的工作线程中运行, 会阻塞的任务应使用单独的线程池而不是公共线程池
+ */
+public class DagExecutor {
+
+    public static final String TASK = "task";         // 顶点属性: Runnable 或 Callable
+    public static final String PRIORITY = "priority"; // 顶点属性: Number, 越大越优先
+
+    public enum State {
+        PENDING,   // 等待依赖完成或在就绪队列中
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        SKIPPED,   // 依赖的任务失败或被跳过
+        CANCELLED
+    }
+
+    private final ForkJoinPool pool;
+    private final boolean failFast;
+
+    public DagExecutor() {
+        this(ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * @param pool     执行任务的线程池
+     * @param failFast 任一任务失败时是否取消整个执行
+     */
+    public DagExecutor(ForkJoinPool pool, boolean failFast) {
+        this.pool = pool;
+        this.failFast = failFast;
+    }
+
+    /**
+     * 异步执行图中的全部任务, 返回执行句柄; 提交后图的修改不影响本次执行
+     *
+     * @throws IllegalArgumentException 图中存在环, 或TASK属性不是Runnable/Callable
+     */
+    public Execution execute(Graph graph) {
+        CsrGraph csr = CsrGraph.of(graph);
+        if (TopSort.topSortKahn(csr) == null) {
+            throw new IllegalArgumentException("存在循环依赖，无法完成调度");
+        }
+        Execution execution = new Execution(csr, pool, failFast);
+        execution.start();
+        return execution;
+    }
+
+
+    /**
+     * 一次执行的句柄, 方法均可在任意线程中调用
+     */
+    public static class Execution {
+        private final CsrGraph csr;
+        private final ForkJoinPool pool;
+        private final boolean failFast;
+        private final int n;
+
+        private final Object[] tasks;
+        private final int[] priority;
+        private final AtomicIntegerArray indegree;
+        private final AtomicIntegerArray states;
+        private final boolean[] poisoned;          // 有前驱失败或被跳过; 在入度原子减1之前写入, 减到0的线程一定能读到
+        private final PriorityBlockingQueue<Integer> ready;
+
+        private final Object[] results;
+        private final Throwable[] errors;
+        private final long[] readyAt, startAt, endAt;
+        private long startNanos, endNanos;
+
+        private final AtomicInteger remaining;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        Execution(CsrGraph csr, ForkJoinPool pool, boolean failFast) {
+            this.csr = csr;
+            this.pool = pool;
+            this.failFast = failFast;
+            this.n = csr.getVertexNum();
+            tasks = new Object[n];
+            priority = new int[n];
+            indegree = new AtomicIntegerArray(n);
+            states = new AtomicIntegerArray(n);
+            poisoned = new boolean[n];
+            results = new Object[n];
+            errors = new Throwable[n];
+            readyAt = new long[n];
+            startAt = new long[n];
+            endAt = new long[n];
+            remaining = new AtomicInteger(n);
+
+            for (int v = 0; v < n; v++) {
+                Vertex vertex = csr.vertexOf(v);
+                Object task = vertex.getProperty(TASK);
+                if (task != null && !(task instanceof Runnable) && !(task instanceof Callable)) {
+                    throw new IllegalArgumentException(String.format("顶点%s的任务不是Runnable或Callable", vertex.getName()));
+                }
+                tasks[v] = task;
+                Object p = vertex.getProperty(PRIORITY);
+                priority[v] = p instanceof Number ? ((Number) p).intValue() : 0;
+                for (int e = csr.edgeBegin(v), end = csr.edgeEnd(v); e < end; e++) {
+                    indegree.getAndIncrement(csr.target(e));
+                }
+            }
+            // 优先级高的先出队, 相同优先级按下标
+            ready = new PriorityBlockingQueue<>(Math.max(1, n), (a, b) ->
+                    priority[a] != priority[b] ? Integer.compare(priority[b], priority[a]) : Integer.compare(a, b));
+        }
+
+        private void start() {
+            startNanos = System.nanoTime();
+            if (n == 0) {
+                endNanos = startNanos;
+                done.countDown();
+                return;
+            }
+            // 先放入全部初始就绪任务, 再提交令牌, 第一批令牌就能按优先级选择
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                if (indegree.get(v) == 0) {
+                    readyAt[v] = System.nanoTime() - startNanos;
+                    ready.add(v);
+                    count++;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                pool.execute(this::runNext);
+            }
+        }
+
+        // 执行令牌: 每个就绪任务对应一个令牌, 因此出队一定不为空
+        private void runNext() {
+            int v = ready.poll();
+            if (cancelled) {
+                finish(v, State.CANCELLED);
+                return;
+            }
+
+            states.set(v, State.RUNNING.ordinal());
+            startAt[v] = System.nanoTime() - startNanos;
+            State state = State.SUCCEEDED;
+            try {
+                Object task = tasks[v];
+                if (task instanceof Callable) {
+                    results[v] = ((Callable<?>) task).call();
+                } else if (task != null) {
+                    ((Runnable) task).run();
+                }
+            } catch (Throwable t) {
+                errors[v] = t;
+                failure.compareAndSet(null, t);
+                if (failFast) cancelled = true;
+                state = State.FAILED;
+            }
+            endAt[v] = System.nanoTime() - startNanos;
+            finish(v, state);
+        }
+
+        // 任务进入终止状态: 后继入度减1, 减到0时就绪; 不执行的后继(跳过或取消)在本线程中继续传递, 用栈代替递归
+        private void finish(int v, State state) {
+            int[] stack = null;
+            int top = 0;
+            while (true) {
+                states.set(v, state.ordinal());
+                boolean poison = state == State.FAILED || state == State.SKIPPED;
+                for (int e = csr.edgeBegin(v), end = csr.edgeEnd(v); e < end; e++) {
+                    int w = csr.target(e);
+                    if (poison) poisoned[w] = true;
+                    if (indegree.decrementAndGet(w) == 0) {
+                        readyAt[w] = System.nanoTime() - startNanos;
+                        if (poisoned[w] || cancelled) {
+                            if (stack == null) stack = new int[16];
+                            if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                            stack[top++] = w;
+                        } else {
+                            ready.add(w);
+                            pool.execute(this::runNext);
+                        }
+                    }
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    endNanos = System.nanoTime();
+                    done.countDown();
+                }
+
+                if (top == 0) return;
+                v = stack[--top];
+                state = poisoned[v] ? State.SKIPPED : State.CANCELLED;
+            }
+        }
+
+
+        // 控制 *************************************************************************************************************
+
+        /**
+         * 取消执行: 不再启动新任务, 正在运行的任务不会被中断
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        /**
+         * 等待全部任务进入终止状态
+         *
+         * @throws ExecutionException    有任务失败, cause为第一个失败任务抛出的异常
+         * @throws CancellationException 执行被取消且没有任务失败
+         */
+        public void await() throws InterruptedException, ExecutionException {
+            done.await();
+            report();
+        }
+
+        /**
+         * 最多等待timeout, 超时返回false
+         */
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException {
+            if (!done.await(timeout, unit)) return false;
+            report();
+            return true;
+        }
+
+        private void report() throws ExecutionException {
+            Throwable t = failure.get();
+            if (t != null) throw new ExecutionException(t);
+            if (cancelled) throw new CancellationException();
+        }
+
+
+        // 结果与统计 *******************************************************************************************************
+
+        public State getState(Vertex vertex) {
+            return State.values()[states.get(csr.indexOf(vertex))];
+        }
+
+        // Callable任务的返回值, 未完成或Runnable任务为null
+        public Object getResult(Vertex vertex) {
+            return results[csr.indexOf(vertex)];
+        }
+
+        // 任务抛出的异常, 没有失败为null
+        public Throwable getError(Vertex vertex) {
+            return errors[csr.indexOf(vertex)];
+        }
+
+        // 第一个失败任务抛出的异常
+        public Throwable getFailure() {
+            return failure.get();
+        }
+
+        /**
+         * 任务的计时; 应在执行结束后读取, 未执行的任务开始与结束时刻为0
+         */
+        public TaskMetrics getMetrics(Vertex vertex) {
+            int v = csr.indexOf(vertex);
+            return new TaskMetrics(readyAt[v], startAt[v], endAt[v]);
+        }
+
+        // 从提交到全部任务终止的纳秒数, 未结束时为到当前的纳秒数
+        public long getElapsedNanos() {
+            return (isDone() ? endNanos : System.nanoTime()) - startNanos;
+        }
+
+        // 各状态的任务数, 下标为State.ordinal()
+        public int[] getStateCounts() {
+            int[] counts = new int[State.values().length];
+            for (int v = 0; v < n; v++) {
+                counts[states.get(v)]++;
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * 单个任务的计时, 时刻均为相对提交时刻的纳秒数
+     */
+    public static class TaskMetrics {
+        private final long readyNanos, startNanos, endNanos;
+
+        TaskMetrics(long readyNanos, long startNanos, long endNanos) {
+            this.readyNanos = readyNanos;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+
+        // 依赖全部完成(入度减到0)的时刻, 初始就绪任务为0附近
+        public long getReadyNanos() {
+            return readyNanos;
+        }
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getEndNanos() {
+            return endNanos;
+        }
+
+        // 就绪后在队列中等待的时间
+        public long getWaitNanos() {
+            return startNanos == 0 ? 0 : startNanos - readyNanos;
+        }
+
+        public long getRunNanos() {
+            return endNanos - startNanos;
+        }
+    }
+
+
+    /**
+     * 测试用例: 任务依赖与 TaskSchedulerWithPriority 相同, 单线程池上就绪任务按优先级执行
+     *     t0(10)   t1(20)
+     *         \     /
+     *          t2(10)      t4(5) -> t5(5)
+     *            |
+     *          t3(20)
+     */
+    public static void main(String[] args) throws InterruptedException {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        Vertex[] t = new Vertex[6];
+        int[] priorities = {10, 20, 10, 20, 5, 5};
+        StringBuffer order = new StringBuffer();
+        for (int i = 0; i < t.length; i++) {
+            t[i] = new Vertex("t" + i, vertexLabel);
+            t[i].setProperty(PRIORITY, priorities[i]);
+            String name = t[i].getName();
+            t[i].setProperty(TASK, (Callable<String>) () -> {
+                order.append(name).append(' ');
+                Thread.sleep(20);
+                return name + " done";
+            });
+            graph.addVertex(t[i]);
+        }
+        graph.addEdge(t[0], t[2], 1, edgeLabel);
+        graph.addEdge(t[1], t[2], 1, edgeLabel);
+        graph.addEdge(t[2], t[3], 1, edgeLabel);
+        graph.addEdge(t[4], t[5], 1, edgeLabel);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        Execution execution = new DagExecutor(single, false).execute(graph);
+        try {
+            execution.await();
+        } catch (ExecutionException e) {
+            System.out.println("失败: " + e.getCause());
+        }
+        System.out.println("单线程执行顺序: " + order + ", t3结果: " + execution.getResult(t[3]));
+        for (Vertex vertex : t) {
+            TaskMetrics metrics = execution.getMetrics(vertex);
+            System.out.println(String.format("    %s 就绪 %5.1f ms, 等待 %5.1f ms, 运行 %5.1f ms",
+                    vertex.getName(), metrics.getReadyNanos() / 1e6, metrics.getWaitNanos() / 1e6, metrics.getRunNanos() / 1e6));
+        }
+
+        // 失败传递: t2失败, t3被跳过, 无关的 t4 -> t5 继续执行
+        t[2].setProperty(TASK, (Runnable) () -> {
+            throw new IllegalStateException("t2 编译失败");
+        });
+        execution = new DagExecutor(single, false).execute(graph);
+        try {
+            execution.await();
+        } catch (ExecutionException e) {
+            System.out.println("失败: " + e.getCause().getMessage());
+        }
+        StringBuilder states = new StringBuilder();
+        for (Vertex vertex : t) {
+            states.append(vertex.getName()).append('=').append(execution.getState(vertex)).append(' ');
+        }
+        System.out.println("    " + states);
+
+        // 取消: 提交后立即取消, 已经开始的任务执行完为止, 其余任务不再启动
+        t[2].setProperty(TASK, null);
+        execution = new DagExecutor(single, false).execute(graph);
+        execution.cancel();
+        try {
+            execution.await();
+        } catch (CancellationException | ExecutionException e) {
+            System.out.println("取消: " + Arrays.toString(execution.getStateCounts()) + " (按 " + Arrays.toString(State.values()) + ")");
+        }
+        single.shutdown();
+
+        // 存在环
+        graph.addEdge(t[3], t[0], 1, edgeLabel);
+        try {
+            new DagExecutor().execute(graph);
+        } catch (IllegalArgumentException e) {
+            System.out.println("存在环: " + e.getMessage());
+        }
+    }
+
+}
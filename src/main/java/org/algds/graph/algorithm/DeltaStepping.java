@@ -0,0 +1,369 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.algds.graph.algorithm.ShortestPath.INF;
+
+/**
+ * Delta-Stepping 并行单源赋权最短路径 (Meyer & Sanders)
+ *  按距离把顶点放入宽度为delta的桶中, 第i个桶保存距离在 [i*delta, (i+1)*delta) 内的顶点
+ *  权重不超过delta的边为轻边, 其余为重边
+ *  1 依次处理编号最小的非空桶: 反复取出桶内全部顶点, 并行松弛其轻边, 轻边松弛可能把顶点重新放回当前桶, 直到当前桶为空
+ *  2 当前桶清空后其中顶点距离已确定, 对本桶取出过的全部顶点并行松弛一次重边, 重边只会放入后续的桶
+ *
+ *  delta = 1 时退化为并行的Dial算法, delta 不小于最大权重时退化为并行的Bellman-Ford
+ *  距离与前驱打包在一个long中用CAS原子更新, 要求边权非负
+ *  距离与dijkstra完全一致; 存在等长最短路径时前驱可能不同, 但同样构成一棵最短路径树
+ */
+public class DeltaStepping {
+
+    private static final int GRAIN = 256; // 单个并行任务处理的最小顶点数, 更小的批次直接在当前线程执行
+
+    /**
+     * Delta-Stepping算法 计算单源赋权最短路径, 结果结构与ShortestPath.dijkstra一致
+     *
+     * @param delta 桶宽度
+     */
+    public static Map<String, Map<Integer, Integer>> deltaStepping(Graph graph, Vertex start, int delta) {
+        CsrGraph csr = CsrGraph.of(graph);
+        int n = csr.getVertexNum();
+        int[] dist = new int[n];
+        int[] pred = new int[n];
+        deltaStepping(csr, csr.indexOf(start), delta, dist, pred, ForkJoinPool.commonPool());
+        return ShortestPath.toResultMap(csr, dist, pred);
+    }
+
+    /**
+     * 按 最大权重 / 平均出度 估计桶宽度, 在公共ForkJoinPool上执行
+     *
+     * @param csr    CSR快照
+     * @param source 源点稠密下标
+     * @param dist   输出: 距离, 不可达为INF
+     * @param pred   输出: 前一个顶点下标, 源点及不可达顶点为-1
+     */
+    public static void deltaStepping(CsrGraph csr, int source, int[] dist, int[] pred) {
+        deltaStepping(csr, source, defaultDelta(csr), dist, pred, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Delta-Stepping算法 计算单源赋权最短路径 (CSR快照版本)
+     *
+     * @param csr    CSR快照
+     * @param source 源点稠密下标
+     * @param delta  桶宽度, 不小于1
+     * @param dist   输出: 距离, 不可达为INF
+     * @param pred   输出: 前一个顶点下标, 源点及不可达顶点为-1
+     * @param pool   执行并行任务的线程池
+     */
+    public static void deltaStepping(CsrGraph csr, int source, int delta, int[] dist, int[] pred, ForkJoinPool pool) {
+        if (delta < 1) {
+            throw new IllegalArgumentException("桶宽度必须不小于1: " + delta);
+        }
+        if (csr.getEdgeNum() > 0 && csr.getMinWeight() < 0) {
+            throw new IllegalArgumentException("Delta-Stepping要求边权非负");
+        }
+
+        int n = csr.getVertexNum();
+        Engine s = new Engine(csr, delta);
+        s.state.set(source, pack(0, -1));
+        s.local().add(0, source);
+
+        // 依次处理编号最小的非空桶
+        for (int bucket = 0; bucket >= 0; bucket = s.nextBucket(bucket)) {
+            int[] settled = new int[16]; // 本桶取出过的全部顶点, 可能重复
+            int settledSize = 0;
+
+            // 1 反复松弛轻边直到当前桶为空
+            int[] frontier;
+            while ((frontier = s.drain(bucket)).length > 0) {
+                s.run(pool, frontier, bucket, true);
+                if (settledSize + frontier.length > settled.length) {
+                    settled = Arrays.copyOf(settled, Math.max(settled.length * 2, settledSize + frontier.length));
+                }
+                System.arraycopy(frontier, 0, settled, settledSize, frontier.length);
+                settledSize += frontier.length;
+            }
+
+            // 2 本桶顶点距离已确定, 松弛重边
+            if (s.hasHeavy) {
+                s.run(pool, Arrays.copyOf(settled, settledSize), bucket, false);
+            }
+        }
+
+        for (int v = 0; v < n; v++) {
+            long packed = s.state.get(v);
+            dist[v] = (int) (packed >>> 32);
+            pred[v] = (int) packed;
+        }
+    }
+
+    // 桶宽度经验值: 最大权重 / 平均出度
+    static int defaultDelta(CsrGraph csr) {
+        int n = Math.max(1, csr.getVertexNum());
+        long degree = Math.max(1, csr.getEdgeNum() / n);
+        return (int) Math.max(1, csr.getMaxWeight() / degree);
+    }
+
+    // 高32位为距离, 低32位为前驱; 距离非负, 因此按long比较即按距离比较
+    private static long pack(int dist, int pred) {
+        return ((long) dist << 32) | (pred & 0xFFFFFFFFL);
+    }
+
+
+    // 一次求解的共享状态 ***********************************************************************************************
+    private static class Engine {
+        static final int SETTLED = -2;
+
+        final CsrGraph csr;
+        final int delta;
+        final boolean hasHeavy;
+        final int slots;                   // 桶按编号循环使用, 任意时刻非空桶编号都落在 [当前桶, 当前桶 + slots) 内
+        final AtomicLongArray state;       // 打包的 (距离, 前驱)
+        final AtomicIntegerArray relaxed;  // 最近一次松弛轻边时的距离, 用于桶内去重; SETTLED表示已松弛重边
+        final Map<Thread, Bins> binsOf = new ConcurrentHashMap<>(); // 每个参与计算的线程一组桶, 插入无需同步
+
+        Engine(CsrGraph csr, int delta) {
+            int n = csr.getVertexNum();
+            this.csr = csr;
+            this.delta = delta;
+            this.hasHeavy = csr.getEdgeNum() > 0 && csr.getMaxWeight() > delta;
+            this.slots = (csr.getEdgeNum() > 0 ? csr.getMaxWeight() / delta : 0) + 2;
+            this.state = new AtomicLongArray(n);
+            this.relaxed = new AtomicIntegerArray(n);
+            for (int v = 0; v < n; v++) {
+                state.set(v, pack(INF, -1));
+                relaxed.set(v, -1);
+            }
+        }
+
+        Bins local() {
+            return binsOf.computeIfAbsent(Thread.currentThread(), t -> new Bins(slots));
+        }
+
+        // 取出所有线程中第bucket个桶的顶点
+        int[] drain(int bucket) {
+            int slot = bucket % slots;
+            int size = 0;
+            for (Bins bins : binsOf.values()) size += bins.sizes[slot];
+            int[] items = new int[size];
+            size = 0;
+            for (Bins bins : binsOf.values()) {
+                System.arraycopy(bins.items[slot], 0, items, size, bins.sizes[slot]);
+                size += bins.sizes[slot];
+                bins.sizes[slot] = 0;
+            }
+            return items;
+        }
+
+        // 当前桶之后编号最小的非空桶, 不存在返回-1
+        int nextBucket(int bucket) {
+            for (int next = bucket + 1; next < bucket + slots; next++) {
+                for (Bins bins : binsOf.values()) {
+                    if (bins.sizes[next % slots] > 0) return next;
+                }
+            }
+            return -1;
+        }
+
+        void run(ForkJoinPool pool, int[] frontier, int bucket, boolean light) {
+            if (frontier.length <= GRAIN) {
+                relax(frontier, 0, frontier.length, bucket, light);
+            } else {
+                pool.invoke(new RelaxTask(this, frontier, 0, frontier.length, bucket, light));
+            }
+        }
+
+        // 松弛 frontier[lo, hi) 中仍属于当前桶的顶点的轻边或重边
+        void relax(int[] frontier, int lo, int hi, int bucket, boolean light) {
+            Bins bins = local();
+            for (int i = lo; i < hi; i++) {
+                int u = frontier[i];
+                int du = (int) (state.get(u) >>> 32);
+                if (du / delta != bucket) continue;                    // 已被更新到更小的桶
+                if (light ? relaxed.getAndSet(u, du) == du             // 该距离下已松弛过轻边
+                        : relaxed.getAndSet(u, SETTLED) == SETTLED) {   // 已松弛过重边
+                    continue;
+                }
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    int w = csr.weight(e);
+                    if ((w <= delta) != light) continue;
+                    long newDist = (long) du + w;
+                    if (newDist >= INF) continue;
+
+                    int v = csr.target(e);
+                    long current = state.get(v);
+                    while (newDist < (int) (current >>> 32)) { // 发现更短路径则CAS更新, 成功后放入对应的桶
+                        if (state.compareAndSet(v, current, pack((int) newDist, u))) {
+                            bins.add((int) (newDist / delta) % slots, v);
+                            break;
+                        }
+                        current = state.get(v);
+                    }
+                }
+            }
+        }
+    }
+
+    // 线程本地的桶 *****************************************************************************************************
+    private static class Bins {
+        final int[][] items;
+        final int[] sizes;
+
+        Bins(int slots) {
+            items = new int[slots][];
+            sizes = new int[slots];
+            Arrays.fill(items, new int[0]);
+        }
+
+        void add(int slot, int v) {
+            if (sizes[slot] == items[slot].length) {
+                items[slot] = Arrays.copyOf(items[slot], Math.max(16, items[slot].length * 2));
+            }
+            items[slot][sizes[slot]++] = v;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class RelaxTask extends RecursiveAction {
+        private final Engine s;
+        private final int[] frontier;
+        private final int lo, hi, bucket;
+        private final boolean light;
+
+        RelaxTask(Engine s, int[] frontier, int lo, int hi, int bucket, boolean light) {
+            this.s = s;
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.bucket = bucket;
+            this.light = light;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new RelaxTask(s, frontier, lo, mid, bucket, light),
+                        new RelaxTask(s, frontier, mid, hi, bucket, light));
+            } else {
+                s.relax(frontier, lo, hi, bucket, light);
+            }
+        }
+    }
+
+
+    /**
+     * 测试图例, 同ShortestPath
+     *         v1 ----> v2
+     *        /| \      / \
+     *       /    \    /   \
+     *      /      \||/     \|
+     *     v3 <---- v4 ----> v5
+     *      \      / \      /
+     *       \    /   \    /
+     *        \||/     \||/
+     *         v6 <---- v7
+     */
+    public static void main(String[] args) {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        // 创建顶点
+        Vertex v1 = new Vertex("v1", vertexLabel);
+        Vertex v2 = new Vertex("v2", vertexLabel);
+        Vertex v3 = new Vertex("v3", vertexLabel);
+        Vertex v4 = new Vertex("v4", vertexLabel);
+        Vertex v5 = new Vertex("v5", vertexLabel);
+        Vertex v6 = new Vertex("v6", vertexLabel);
+        Vertex v7 = new Vertex("v7", vertexLabel);
+
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+        graph.addVertex(v3);
+        graph.addVertex(v4);
+        graph.addVertex(v5);
+        graph.addVertex(v6);
+        graph.addVertex(v7);
+
+        // 构造边
+        graph.addEdge(v1, v2, 2, edgeLabel);
+        graph.addEdge(v1, v4, 1, edgeLabel);
+        graph.addEdge(v2, v5, 10, edgeLabel);
+        graph.addEdge(v2, v4, 3, edgeLabel);
+        graph.addEdge(v3, v1, 4, edgeLabel);
+        graph.addEdge(v3, v6, 5, edgeLabel);
+        graph.addEdge(v4, v3, 2, edgeLabel);
+        graph.addEdge(v4, v5, 2, edgeLabel);
+        graph.addEdge(v4, v6, 8, edgeLabel);
+        graph.addEdge(v4, v7, 4, edgeLabel);
+        graph.addEdge(v5, v7, 6, edgeLabel);
+        graph.addEdge(v7, v6, 1, edgeLabel);
+
+        System.out.println("Delta-Stepping单源赋权最短路径算法(delta = 3): ");
+        ShortestPath.printResults(graph, deltaStepping(graph, v1, 3));
+
+        // 随机图上与dijkstra对比: 距离一致, 前驱构成最短路径树
+        Random random = new Random(42);
+        int errors = 0;
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(3000);
+            Graph g = new Graph();
+            Vertex[] vertices = new Vertex[n];
+            for (int i = 0; i < n; i++) {
+                vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+                g.addVertex(vertices[i]);
+            }
+            int maxWeight = 1 + random.nextInt(1000);
+            for (int i = 0; i < n * 4; i++) {
+                g.addEdge(i + 1, vertices[random.nextInt(n)], vertices[random.nextInt(n)], random.nextInt(maxWeight + 1), edgeLabel);
+            }
+            CsrGraph csr = CsrGraph.of(g);
+            int source = random.nextInt(n);
+            int[] expected = new int[n], expectedPred = new int[n];
+            ShortestPath.dijkstra(csr, source, expected, expectedPred);
+            int delta = round % 3 == 0 ? 1 : round % 3 == 1 ? defaultDelta(csr) : maxWeight + 1;
+            int[] dist = new int[n], pred = new int[n];
+            deltaStepping(csr, source, delta, dist, pred, ForkJoinPool.commonPool());
+            if (!Arrays.equals(expected, dist) || !isShortestPathTree(csr, source, dist, pred)) {
+                errors++;
+                System.out.println(String.format("第%s轮不一致: n = %s, delta = %s", round, n, delta));
+            }
+        }
+        System.out.println(String.format("随机图对比dijkstra: 50轮, 错误%s个", errors));
+    }
+
+    // 校验前驱: 源点前驱为-1, 其余可达顶点存在边 pred -> v 满足 dist[pred] + w = dist[v]
+    private static boolean isShortestPathTree(CsrGraph csr, int source, int[] dist, int[] pred) {
+        for (int v = 0; v < csr.getVertexNum(); v++) {
+            if (v == source || dist[v] == INF) {
+                if (pred[v] != -1) return false;
+                continue;
+            }
+            int u = pred[v];
+            boolean found = false;
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end && !found; e++) {
+                found = csr.target(e) == v && dist[u] + csr.weight(e) == dist[v];
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,350 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.Edge;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.GraphListener;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+import org.algds.tree.ds.IndexedBinaryHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.algds.graph.algorithm.ShortestPath.INF;
+
+/**
+ * 动态单源最短路径 (Ramalingam-Reps): 图修改后只修复受影响部分的最短路径树
+ *  注册为图的监听器, 通过 Graph.addVertex / addEdge / setEdgeWeight 的修改自动维护, 要求边权非负
+ *  addEdge覆盖相同ID的边时按 删除旧边 + 新增新边 处理
+ *
+ *  边 u -> v 变短或新增: 若 dist[u] + w < dist[v], 以v为起点执行Dijkstra, 只扩展距离变小的顶点
+ *  边 u -> v 变长:       若该边不是树边则结果不变; 否则
+ *                        1 受影响集合A为最短路径树中v的子树, 其他顶点的距离不会变化
+ *                        2 A中每个顶点的距离先取 经A以外顶点的入边 所得的最小值
+ *                        3 在A内执行Dijkstra, 只在A内松弛
+ *  修复代价与距离发生变化(或可能变化)的顶点及其邻边数量成正比, 而不是整个图
+ *
+ * 内部维护顶点的稠密下标与每个顶点的入边表, 出边直接读取顶点的邻接表; 实例非线程安全, 回调在修改图的线程中执行
+ */
+public class DynamicShortestPath implements GraphListener {
+
+    private final Graph graph;
+    private final Vertex source;
+
+    // 顶点ID -> 稠密下标, 按加入顺序编号
+    private final Map<Integer, Integer> indexOf = new HashMap<>();
+    private Vertex[] vertices;
+    private final List<List<Edge>> in = new ArrayList<>(); // 下标 -> 入边表, 随顶点加入追加
+    private int n;
+
+    private int[] dist;
+    private Edge[] predEdge;     // 最短路径树中指向顶点的边, 源点及不可达顶点为null
+    private int[] affectedStamp; // affectedStamp[v] == update 表示v在本次修复的受影响集合中
+    private int update;
+    private IndexedBinaryHeap heap;
+
+    private int lastAffected;    // 最近一次修改中出堆的顶点数
+
+    /**
+     * 在图的当前状态上计算最短路径树并开始监听修改
+     */
+    public DynamicShortestPath(Graph graph, Vertex source) {
+        this.graph = graph;
+        this.source = source;
+        int capacity = Math.max(16, graph.getVertices().size());
+        allocate(capacity);
+        for (Vertex vertex : graph.getVertices().values()) {
+            addVertex(vertex);
+        }
+        for (int v = 0; v < n; v++) {
+            for (Edge edge : vertices[v].getEdges()) {
+                in.get(indexOf.get(edge.getTo().getId())).add(edge);
+            }
+        }
+
+        int s = indexOf.get(source.getId());
+        dist[s] = 0;
+        heap.insert(s, 0);
+        lastAffected = propagate();
+        graph.addListener(this);
+    }
+
+    /**
+     * 停止监听图的修改, 之后结果不再更新
+     */
+    public void detach() {
+        graph.removeListener(this);
+    }
+
+
+    // 1 图修改回调 *****************************************************************************************************
+
+    @Override
+    public void vertexAdded(Vertex vertex) {
+        addVertex(vertex);
+        lastAffected = 0;
+    }
+
+    @Override
+    public void edgeAdded(Edge edge) {
+        in.get(index(edge.getTo())).add(edge);
+        lastAffected = decrease(edge);
+    }
+
+    // 相同ID的边被覆盖: 先按删除旧边修复(旧边是树边时在其子树内重算), 再按新增新边修复
+    @Override
+    public void edgeReplaced(Edge oldEdge, Edge newEdge) {
+        in.get(index(oldEdge.getTo())).remove(oldEdge);
+        int affected = increase(oldEdge);
+        in.get(index(newEdge.getTo())).add(newEdge);
+        lastAffected = affected + decrease(newEdge);
+    }
+
+    @Override
+    public void edgeWeightChanged(Edge edge, int oldWeight) {
+        lastAffected = edge.getWeight() < oldWeight ? decrease(edge) : increase(edge);
+    }
+
+
+    // 2 修复 ***********************************************************************************************************
+
+    // 边变短或新增: 从终点开始传播更短的距离
+    private int decrease(Edge edge) {
+        int u = index(edge.getFrom()), v = index(edge.getTo());
+        if (dist[u] == INF || dist[u] + edge.getWeight() >= dist[v]) {
+            return 0;
+        }
+        dist[v] = dist[u] + edge.getWeight();
+        predEdge[v] = edge;
+        heap.insert(v, dist[v]);
+        return propagate();
+    }
+
+    // 树边变长或被删除: 在v的子树内重新计算
+    private int increase(Edge edge) {
+        int v = index(edge.getTo());
+        if (predEdge[v] != edge) {
+            return 0;
+        }
+        if (++update == 0) { // 版本号溢出时清空
+            Arrays.fill(affectedStamp, 0);
+            update = 1;
+        }
+
+        // 1 收集子树: 子节点为经树边到达的顶点
+        int[] affected = new int[16];
+        int count = 0;
+        affected[count++] = v;
+        affectedStamp[v] = update;
+        for (int head = 0; head < count; head++) {
+            for (Edge e : vertices[affected[head]].getEdges()) {
+                int y = index(e.getTo());
+                if (predEdge[y] == e && affectedStamp[y] != update) {
+                    affectedStamp[y] = update;
+                    if (count == affected.length) affected = Arrays.copyOf(affected, count * 2);
+                    affected[count++] = y;
+                }
+            }
+        }
+
+        // 2 受影响顶点先取经未受影响顶点的入边的最短距离
+        for (int i = 0; i < count; i++) {
+            int y = affected[i];
+            dist[y] = INF;
+            predEdge[y] = null;
+        }
+        for (int i = 0; i < count; i++) {
+            int y = affected[i];
+            for (Edge e : in.get(y)) {
+                int x = index(e.getFrom());
+                if (affectedStamp[x] == update || dist[x] == INF) continue;
+                int newDist = dist[x] + e.getWeight();
+                if (newDist < dist[y]) {
+                    dist[y] = newDist;
+                    predEdge[y] = e;
+                }
+            }
+            if (dist[y] != INF) heap.insert(y, dist[y]);
+        }
+
+        // 3 受影响集合内的Dijkstra; 集合外顶点的距离不会因边变长而变小
+        return propagate();
+    }
+
+    // 从堆中的顶点开始执行Dijkstra, 返回出堆顶点数
+    private int propagate() {
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            int x = heap.deleteMin();
+            settled++;
+            for (Edge e : vertices[x].getEdges()) {
+                int y = index(e.getTo());
+                int newDist = dist[x] + e.getWeight();
+                if (newDist < dist[y]) {
+                    dist[y] = newDist;
+                    predEdge[y] = e;
+                    heap.insertOrDecrease(y, newDist);
+                }
+            }
+        }
+        return settled;
+    }
+
+
+    // 3 结果 ***********************************************************************************************************
+
+    public Vertex getSource() {
+        return source;
+    }
+
+    // 源点到vertex的距离, 不可达为INF
+    public int getDistance(Vertex vertex) {
+        return dist[index(vertex)];
+    }
+
+    // 最短路径上vertex的前一个顶点, 源点及不可达顶点为null
+    public Vertex getPredecessor(Vertex vertex) {
+        Edge edge = predEdge[index(vertex)];
+        return edge == null ? null : edge.getFrom();
+    }
+
+    // 最近一次图修改引起的出堆顶点数, 用于观察修复范围
+    public int getLastAffected() {
+        return lastAffected;
+    }
+
+    /**
+     * 当前结果, 结构与ShortestPath.dijkstra一致
+     */
+    public Map<String, Map<Integer, Integer>> toResultMap() {
+        Map<Integer, Integer> processed = new HashMap<>();
+        Map<Integer, Integer> newDist = new HashMap<>();
+        Map<Integer, Integer> preVertex = new HashMap<>();
+        for (int v = 0; v < n; v++) {
+            if (dist[v] == INF) continue;
+            int id = vertices[v].getId();
+            processed.put(id, 1);
+            newDist.put(id, dist[v]);
+            preVertex.put(id, predEdge[v] == null ? null : predEdge[v].getFrom().getId());
+        }
+
+        Map<String, Map<Integer, Integer>> result = new HashMap<>();
+        result.put("processed", processed);
+        result.put("preVertex", preVertex);
+        result.put("dist", newDist);
+        return result;
+    }
+
+
+    // 内部方法 *********************************************************************************************************
+
+    private int index(Vertex vertex) {
+        return indexOf.get(vertex.getId());
+    }
+
+    private void addVertex(Vertex vertex) {
+        if (indexOf.containsKey(vertex.getId())) {
+            return;
+        }
+        if (n == vertices.length) {
+            allocate(n * 2);
+        }
+        indexOf.put(vertex.getId(), n);
+        vertices[n] = vertex;
+        in.add(new ArrayList<>());
+        dist[n] = INF;
+        n++;
+    }
+
+    // 扩容全部按下标存放的数组, 堆在修复之间总为空, 可以直接重建
+    private void allocate(int capacity) {
+        if (vertices == null) {
+            vertices = new Vertex[capacity];
+            dist = new int[capacity];
+            predEdge = new Edge[capacity];
+            affectedStamp = new int[capacity];
+        } else {
+            vertices = Arrays.copyOf(vertices, capacity);
+            dist = Arrays.copyOf(dist, capacity);
+            predEdge = Arrays.copyOf(predEdge, capacity);
+            affectedStamp = Arrays.copyOf(affectedStamp, capacity);
+        }
+        heap = new IndexedBinaryHeap(capacity);
+    }
+
+
+    /**
+     * 随机修改边权、加边、以相同ID的边覆盖, 每次修改后与ShortestPath.dijkstra全量计算比对
+     */
+    public static void main(String[] args) {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        int n = 2000;
+        Random random = new Random(42);
+        List<Vertex> vertices = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Vertex vertex = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            vertices.add(vertex);
+            graph.addVertex(vertex);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < n * 3; i++) {
+            Edge edge = new Edge(edgeId++, vertices.get(random.nextInt(n)), vertices.get(random.nextInt(n)), random.nextInt(50), edgeLabel);
+            edges.add(edge);
+            graph.addEdge(edge);
+        }
+
+        DynamicShortestPath dynamic = new DynamicShortestPath(graph, vertices.get(0));
+        int updates = 2000, errors = 0;
+        long affected = 0;
+        for (int i = 0; i < updates; i++) {
+            int op = random.nextInt(10);
+            if (op == 0) { // 新顶点及其出入边
+                Vertex vertex = new Vertex(vertices.size() + 1, "v" + (vertices.size() + 1), vertexLabel);
+                graph.addVertex(vertex);
+                Edge edge = new Edge(edgeId++, vertices.get(random.nextInt(vertices.size())), vertex, random.nextInt(50), edgeLabel);
+                vertices.add(vertex);
+                edges.add(edge);
+                graph.addEdge(edge);
+            } else if (op == 1) {
+                Edge edge = new Edge(edgeId++, vertices.get(random.nextInt(vertices.size())), vertices.get(random.nextInt(vertices.size())), random.nextInt(50), edgeLabel);
+                edges.add(edge);
+                graph.addEdge(edge);
+            } else if (op == 2) { // 以相同ID的边覆盖, 一半改权重, 一半同时改终点
+                int k = random.nextInt(edges.size());
+                Edge old = edges.get(k);
+                Vertex to = random.nextBoolean() ? old.getTo() : vertices.get(random.nextInt(vertices.size()));
+                Edge edge = new Edge(old.getId(), old.getFrom(), to, random.nextInt(50), edgeLabel);
+                edges.set(k, edge);
+                graph.addEdge(edge);
+            } else {
+                graph.setEdgeWeight(edges.get(random.nextInt(edges.size())), random.nextInt(50));
+            }
+            affected += dynamic.getLastAffected();
+
+            Map<Integer, Integer> expected = ShortestPath.dijkstra(graph, vertices.get(0)).get("dist");
+            for (Vertex vertex : vertices) {
+                Integer d = expected.get(vertex.getId());
+                if ((d == null ? INF : d) != dynamic.getDistance(vertex)) {
+                    errors++;
+                    break;
+                }
+            }
+        }
+        System.out.println(String.format("顶点 %s, 边 %s, %s次修改: 错误%s次, 平均每次修复出堆 %s 个顶点",
+                graph.getVertexNum(), graph.getEdgeNum(), updates, errors, affected / updates));
+        dynamic.detach();
+    }
+
+}
@@ -31,9 +31,9 @@ public class FindArticulAlgorithm {
         visited.put(1, counter);
 
         // 遍历首节点的邻接表
-        List<Edge> edgeList = start.getEdgeList();
-        for (Edge edge : edgeList) {
-            Vertex to = edge.getTo();
+        List<Edge> edgeList = start.getEdges();
+        for (int j = 0; j < edgeList.size(); j++) {
+            Vertex to = edgeList.get(j).getTo();
             if (!visited.containsKey(to.getId())) {
                 dfsArticul(to, visited, articulSet);
                 treeNumber++;
@@ -54,7 +54,9 @@ public class FindArticulAlgorithm {
         Integer min = ++counter;
         visited.put(start.getId(), counter);
 
-        for (Edge edge : start.getEdgeList()) {
+        List<Edge> edges = start.getEdges();
+        for (int j = 0; j < edges.size(); j++) {
+            Edge edge = edges.get(j);
             Vertex to = edge.getTo();
             if (!visited.containsKey(to.getId())) { // 子节点
                 Integer subMin = dfsArticul(to, visited, articulSet);
@@ -1,101 +1,212 @@
 package org.algds.graph.algorithm;
 
+import org.algds.graph.adjacency.CsrGraph;
 import org.algds.graph.adjacency.Graph;
-import org.algds.graph.adjacency.Edge;
 import org.algds.graph.adjacency.Label;
 import org.algds.graph.adjacency.Vertex;
 
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * 弗洛伊德算法,求多源最短路径
- *  使用邻接表数据结构构造图，在执行floyd算法时首先将邻接表转换成索引实现邻接矩阵
+ *  先将邻接表转换为CSR快照, 顶点按CSR稠密下标映射到矩阵行列, 顶点ID不要求连续
+ *  距离矩阵与后继矩阵均为按行展开的一维数组: dist[i * n + j] 表示下标i到下标j的最短距离
+ *
+ * 分块(Blocked)Floyd: 矩阵划分为 BLOCK x BLOCK 的块, 第kb轮依次处理
+ *  1 对角块 (kb, kb)
+ *  2 第kb行与第kb列上的其余块, 只依赖对角块, 相互独立可并行
+ *  3 其余所有块 (i, j), 只依赖 (i, kb) 与 (kb, j), 相互独立可并行
+ *  每个块内的k-i-j三重循环只访问3个块, 工作集留在L1/L2缓存中
  */
 public class FloydAlgorithm {
 
     // 使用INF表示两个顶点之间没有直接连接
     final static int INF = Integer.MAX_VALUE;
 
+    private static final int BLOCK = 64; // 块边长, 3个块共 3 * 64 * 64 * 4B = 48KB
+
+    /**
+     * 距离矩阵变化追踪
+     */
+    public interface Listener {
+        /**
+         * @param k    完成以下标k为中间顶点的松弛后回调; -1 表示初始邻接矩阵
+         * @param dist 按行展开的距离矩阵, 回调中只读
+         * @param n    顶点数
+         */
+        void afterPhase(int k, int[] dist, int n);
+    }
+
     /**
      * 使用Floyd算法计算所有顶点对之间的最短路径
+     *  返回 "dist"、"next" 两个二维矩阵, 行列均为CsrGraph.of(graph)中的顶点下标(按顶点ID升序)
      */
     public static Map<String, int[][]> floyd(Graph graph) {
+        CsrGraph csr = CsrGraph.of(graph);
+        int n = csr.getVertexNum();
+        int[] next = new int[n * n];
+        int[] dist = floyd(csr, next);
 
-        // 通过邻接表构造邻接矩阵
-//        int[][] metrix = {
-//                {0, 3, INF, 7},
-//                {8, 0, 2, INF},
-//                {5, INF, 0, 1},
-//                {2, INF, INF, 0}
-//        };
-        int[][] metrix = new int[graph.getVertexNum()][graph.getVertexNum()];
-        for (int i = 0; i < metrix.length; i++) { // 初始化数组
-            for (int j = 0; j < metrix.length; j++) {
-                if (i == j) {
-                    metrix[i][j] = 0;
-                } else {
-                    metrix[i][j] = INF;
-                }
-            }
-        }
-        Map<Integer, Vertex> vertices = graph.getVertices();
-        for (Map.Entry<Integer, Vertex> entry : vertices.entrySet()) {
-            Integer i = entry.getKey();
-            List<Edge> edgeList = entry.getValue().getEdgeList();
-            for (Edge edge : edgeList) {
-                Integer j = edge.getTo().getId();
-                metrix[i - 1][j - 1] = edge.getWeight();
-            }
+        // 返回处理结果
+        int[][] distMatrix = new int[n][n];
+        int[][] nextMatrix = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(dist, i * n, distMatrix[i], 0, n);
+            System.arraycopy(next, i * n, nextMatrix[i], 0, n);
         }
+        Map<String, int[][]> result = new HashMap<>();
+        result.put("dist", distMatrix);
+        result.put("next", nextMatrix);
+        return result;
+    }
 
+    /**
+     * 分块并行Floyd, 使用公共ForkJoinPool
+     *
+     * @param csr  CSR快照
+     * @param next 输出(可为null): next[i * n + j] 表示i到j最短路径上i的下一个顶点下标, -1表示不可达
+     * @return 按行展开的最短距离矩阵, 不可达为INF
+     */
+    public static int[] floyd(CsrGraph csr, int[] next) {
+        return floyd(csr, next, ForkJoinPool.commonPool());
+    }
 
-        // 距离矩阵变化趋势追踪
-        System.out.println("距离矩阵变化趋势追踪: ");
-
-        // 打印原始矩阵
-        printSolution(metrix, -1);
+    /**
+     * 分块并行Floyd
+     *
+     * @param csr  CSR快照
+     * @param next 输出(可为null): next[i * n + j] 表示i到j最短路径上i的下一个顶点下标, -1表示不可达
+     * @param pool 执行并行任务的线程池
+     * @return 按行展开的最短距离矩阵, 不可达为INF
+     */
+    public static int[] floyd(CsrGraph csr, int[] next, ForkJoinPool pool) {
+        int n = csr.getVertexNum();
+        int[] dist = init(csr, next);
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        for (int kb = 0; kb < blocks; kb++) {
+            relaxBlock(dist, next, n, kb, kb, kb);
+            pool.invoke(new BlockTask(dist, next, n, blocks, kb, false, 0, 2 * blocks));
+            pool.invoke(new BlockTask(dist, next, n, blocks, kb, true, 0, blocks * blocks));
+        }
+        return dist;
+    }
 
-        int n = metrix.length;
-        int[][] dist = new int[n][n];
-        int[][] next = new int[n][n]; // next[i][j]表示在顶点i到顶点j的最短路径上，顶点i的下一个顶点索引
+    /**
+     * 带追踪的Floyd: 每完成一个中间顶点k回调一次listener
+     *  中间状态需要逐个k物化, 因此按原始k-i-j顺序单线程执行; listener为null时等价于floyd(csr, next)
+     */
+    public static int[] floyd(CsrGraph csr, int[] next, Listener listener) {
+        if (listener == null) {
+            return floyd(csr, next);
+        }
+        int n = csr.getVertexNum();
+        int[] dist = init(csr, next);
+        listener.afterPhase(-1, dist, n);
+        for (int k = 0; k < n; k++) {
+            relax(dist, next, n, k, 0, n, 0, n);
+            listener.afterPhase(k, dist, n);
+        }
+        return dist;
+    }
 
-        // 初始化矩阵
+    // 初始化距离矩阵与后继矩阵, 重边取最小权重
+    private static int[] init(CsrGraph csr, int[] next) {
+        int n = csr.getVertexNum();
+        int[] dist = new int[n * n];
         for (int i = 0; i < n; i++) {
+            int row = i * n;
             for (int j = 0; j < n; j++) {
-                dist[i][j] = metrix[i][j];
-                if (dist[i][j] != Integer.MAX_VALUE) {
-                    next[i][j] = j; // 初始化,顶点i到顶点j可达,初始可以顶点i的下一个顶点信息为j
-                } else {
-                    next[i][j] = -1; // 初始化,没有下一个顶点信息,表示i->j不可达
+                dist[row + j] = i == j ? 0 : INF;
+            }
+            for (int e = csr.edgeBegin(i), end = csr.edgeEnd(i); e < end; e++) {
+                int j = csr.target(e);
+                dist[row + j] = Math.min(dist[row + j], csr.weight(e));
+            }
+            if (next != null) {
+                for (int j = 0; j < n; j++) {
+                    next[row + j] = dist[row + j] != INF ? j : -1; // 可达时i的下一个顶点初始为j
                 }
             }
         }
+        return dist;
+    }
 
-        // 应用Floyd算法
-        for (int k = 0; k < n; k++) {
-            for (int i = 0; i < n; i++) {
-                for (int j = 0; j < n; j++) {
-                    /**
-                     * 如果通过顶点k的路径更短，则更新距离
-                     */
-                    if (dist[i][k] != Integer.MAX_VALUE && dist[k][j] != Integer.MAX_VALUE && dist[i][k] + dist[k][j] < dist[i][j]) {
-                        dist[i][j] = dist[i][k] + dist[k][j];
-                        next[i][j] = next[i][k];
-                        // 每次更新矩阵都将大新最新距离矩阵,下一次更新要在上一次距离矩阵基础上迭代
-                        printSolution(dist, k);
-                    }
+    // 以块kb中的顶点为中间顶点松弛块 (ib, jb)
+    private static void relaxBlock(int[] dist, int[] next, int n, int ib, int jb, int kb) {
+        int kEnd = Math.min(n, (kb + 1) * BLOCK);
+        int iFrom = ib * BLOCK, iTo = Math.min(n, iFrom + BLOCK);
+        int jFrom = jb * BLOCK, jTo = Math.min(n, jFrom + BLOCK);
+        for (int k = kb * BLOCK; k < kEnd; k++) {
+            relax(dist, next, n, k, iFrom, iTo, jFrom, jTo);
+        }
+    }
+
+    // 以k为中间顶点松弛 [iFrom, iTo) x [jFrom, jTo)
+    private static void relax(int[] dist, int[] next, int n, int k, int iFrom, int iTo, int jFrom, int jTo) {
+        int kRow = k * n;
+        for (int i = iFrom; i < iTo; i++) {
+            int row = i * n;
+            int dik = dist[row + k];
+            if (dik == INF) continue;
+            for (int j = jFrom; j < jTo; j++) {
+                int dkj = dist[kRow + j];
+                // 如果通过顶点k的路径更短，则更新距离
+                if (dkj != INF && dik + dkj < dist[row + j]) {
+                    dist[row + j] = dik + dkj;
+                    if (next != null) next[row + j] = next[row + k];
                 }
             }
         }
+    }
 
+    // 并行处理第kb轮中的块: 行列块编号区间 [lo, hi) ******************************************************************
+    @SuppressWarnings("serial")
+    private static class BlockTask extends RecursiveAction {
+        private final int[] dist, next;
+        private final int n, blocks, kb;
+        private final boolean rest; // false: 第kb行/列上的块(编号 < blocks 为行块, 否则为列块); true: 其余块
+        private final int lo, hi;
+
+        BlockTask(int[] dist, int[] next, int n, int blocks, int kb, boolean rest, int lo, int hi) {
+            this.dist = dist;
+            this.next = next;
+            this.n = n;
+            this.blocks = blocks;
+            this.kb = kb;
+            this.rest = rest;
+            this.lo = lo;
+            this.hi = hi;
+        }
 
-        // 返回处理结果
-        Map<String, int[][]> result = new HashMap<>();
-        result.put("dist", dist);
-        result.put("next", next);
-        return result;
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BlockTask(dist, next, n, blocks, kb, rest, lo, mid),
+                        new BlockTask(dist, next, n, blocks, kb, rest, mid, hi));
+                return;
+            }
+            int ib, jb;
+            if (rest) {
+                ib = lo / blocks;
+                jb = lo % blocks;
+                if (ib == kb || jb == kb) return;
+            } else if (lo < blocks) {
+                ib = kb;
+                jb = lo;
+                if (jb == kb) return;
+            } else {
+                ib = lo - blocks;
+                jb = kb;
+                if (ib == kb) return;
+            }
+            relaxBlock(dist, next, n, ib, jb, kb);
+        }
     }
 
 
@@ -146,42 +257,68 @@ public class FloydAlgorithm {
 
 
 
-        // 应用Floyd算法
-        Map<String, int[][]> floyd = floyd(graph);
+        // 应用Floyd算法, 追踪距离矩阵变化趋势
+        System.out.println("距离矩阵变化趋势追踪: ");
+        CsrGraph csr = CsrGraph.of(graph);
+        int n = csr.getVertexNum();
+        int[] next = new int[n * n];
+        int[] dist = floyd(csr, next, FloydAlgorithm::printSolution);
+        printSolution(-2, dist, n);
 
 
         // 打印多源最短路径
         System.out.println("============================================================================");
-        int[][] nexts = floyd.get("next");
-        printShortestPath(graph, nexts);
+        printShortestPath(csr, next);
 
+
+        // 随机大图: 分块并行版本与追踪版本结果一致
+        int size = 700;
+        Random random = new Random(42);
+        Graph big = new Graph();
+        Vertex[] vertices = new Vertex[size];
+        for (int i = 0; i < size; i++) {
+            vertices[i] = new Vertex(i * 3 + 1, "v" + i, vertexLabel); // 顶点ID不连续
+            big.addVertex(vertices[i]);
+        }
+        for (int i = 0; i < size * 8; i++) {
+            big.addEdge(i + 1, vertices[random.nextInt(size)], vertices[random.nextInt(size)], 1 + random.nextInt(100), edgeLabel);
+        }
+        CsrGraph bigCsr = CsrGraph.of(big);
+        long start = System.nanoTime();
+        int[] sequential = floyd(bigCsr, null, (k, d, m) -> { });
+        long sequentialTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        int[] blocked = floyd(bigCsr, null);
+        long blockedTime = System.nanoTime() - start;
+        System.out.println(String.format("%s个顶点: 逐k执行 %s ms, 分块并行 %s ms, 结果%s", size,
+                sequentialTime / 1_000_000, blockedTime / 1_000_000,
+                Arrays.equals(sequential, blocked) ? "一致" : "不一致"));
     }
 
     // 打印多源最短路径
-    private static void printShortestPath(Graph graph, int[][] next) {
-        int n = next.length;
+    private static void printShortestPath(CsrGraph csr, int[] next) {
+        int n = csr.getVertexNum();
         for (int i = 0; i < n; i++) {
-            System.out.println(String.format("源点: %s", graph.getVertexName(i + 1)));
+            String from = csr.vertexOf(i).getName();
+            System.out.println(String.format("源点: %s", from));
             for (int j = 0; j < n; j++) {
-                System.out.print(String.format("    %s -> %s 最短路径 : %s -> ", graph.getVertexName(i + 1), graph.getVertexName(j + 1), graph.getVertexName(i + 1)));
-                int index = next[i][j];
-                while (index != -1 && index != i && index != j) {
-                    System.out.print(String.format("%s -> ", graph.getVertexName(index + 1)));
-                    index = next[index][j];
+                System.out.print(String.format("    %s -> %s 最短路径 : ", from, csr.vertexOf(j).getName()));
+                if (next[i * n + j] == -1) {
+                    System.out.println("不可达");
+                    continue;
                 }
-                if (index != i) {
-                    System.out.println(String.format("%s -> ", graph.getVertexName(index + 1)));
-                } else {
-                    System.out.println();
+                System.out.print(from);
+                for (int index = i; index != j; ) {
+                    index = next[index * n + j];
+                    System.out.print(String.format(" -> %s", csr.vertexOf(index).getName()));
                 }
+                System.out.println();
             }
         }
     }
 
     // 打印最短距离矩阵
-    private static void printSolution(int[][] dist, int k) {
-        int n = dist.length;
-
+    private static void printSolution(int k, int[] dist, int n) {
         if (k == -1) {
             System.out.println("原始图的邻接矩阵:");
         } else if (k == -2) {
@@ -192,14 +329,14 @@ public class FloydAlgorithm {
 
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
-                if (dist[i][j] == Integer.MAX_VALUE) {
+                if (dist[i * n + j] == INF) {
                     System.out.print("INF\t");
                 } else {
-                    System.out.print(dist[i][j] + "\t");
+                    System.out.print(dist[i * n + j] + "\t");
                 }
             }
             System.out.println();
         }
         System.out.println();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.tree.ds.IndexedBinaryHeap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.algds.graph.algorithm.ShortestPath.INF;
+
+/**
+ * Johnson算法, 求稀疏图的多源最短路径, 允许负权边(不允许负权环)
+ *  1 Bellman-Ford: 添加一个到所有顶点权重为0的虚拟源点, 求出势能 h(v) = d(虚拟源点, v) <= 0
+ *  2 重新赋权:     w'(u,v) = w(u,v) + h(u) - h(v) >= 0, 任意路径的长度只改变 h(s) - h(t), 最短路径不变
+ *  3 以每个顶点为源点执行Dijkstra, 还原 d(s,t) = d'(s,t) - h(s) + h(t)
+ * 时间复杂度 O(VE + V(E + V)logV), 稀疏图上远小于Floyd的 O(V^3); 全部边权非负时跳过第1步
+ *
+ * 各源点的Dijkstra相互独立, 在ForkJoinPool上按源点区间并行, 每个叶子任务复用自己的堆与距离数组
+ * 结果按行输出: 每算完一个源点回调一次, 或顺序写入文件, 不在堆内存中保存 V x V 矩阵
+ */
+public class JohnsonAlgorithm {
+
+    private static final int CHUNK = 16; // 叶子任务处理的源点数
+
+    /**
+     * 一行结果的消费者, 可能被多个线程同时调用
+     */
+    public interface RowConsumer {
+        /**
+         * @param source 源点稠密下标
+         * @param dist   dist[v] 为source到v的最短距离, 不可达为INF; 数组在回调返回后会被复用, 需要保留时应复制
+         */
+        void accept(int source, int[] dist);
+    }
+
+    /**
+     * 在公共ForkJoinPool上计算全部源点
+     */
+    public static void johnson(CsrGraph csr, RowConsumer consumer) {
+        johnson(csr, consumer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 计算全部源点, 每行结果交给consumer
+     *
+     * @throws IllegalArgumentException 图中存在负权环
+     */
+    public static void johnson(CsrGraph csr, RowConsumer consumer, ForkJoinPool pool) {
+        int[] h = BellmanFord.potentials(csr);
+        pool.invoke(new SourceTask(csr, h, consumer, 0, csr.getVertexNum()));
+    }
+
+    /**
+     * 计算全部源点, 距离矩阵按行写入文件
+     *  文件为 n x n 个大端int, 第i行第j个为下标i到下标j的最短距离, 不可达为INF; 可以再以只读方式内存映射按需读取
+     *  各行在计算完成后立即以定位写入落盘, 堆内存中只有每个工作线程的一行缓冲
+     */
+    public static void johnson(CsrGraph csr, File file, ForkJoinPool pool) throws IOException {
+        int n = csr.getVertexNum();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            raf.setLength((long) n * n * 4);
+            ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(n * 4));
+            try {
+                johnson(csr, (source, dist) -> {
+                    ByteBuffer buffer = buffers.get();
+                    buffer.clear();
+                    buffer.asIntBuffer().put(dist, 0, n);
+                    long position = (long) source * n * 4;
+                    try {
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, pool);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 读取johnson写出的文件中下标为source的一行
+     */
+    public static int[] readRow(File file, int n, int source) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, (long) source * n * 4, n * 4L);
+            int[] row = new int[n];
+            buffer.asIntBuffer().get(row);
+            return row;
+        }
+    }
+
+    /**
+     * 源点区间 [lo, hi): 区间不超过CHUNK时顺序计算, 否则对半拆分
+     */
+    @SuppressWarnings("serial")
+    private static class SourceTask extends RecursiveAction {
+        final CsrGraph csr;
+        final int[] h;
+        final RowConsumer consumer;
+        final int lo, hi;
+
+        SourceTask(CsrGraph csr, int[] h, RowConsumer consumer, int lo, int hi) {
+            this.csr = csr;
+            this.h = h;
+            this.consumer = consumer;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > CHUNK) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SourceTask(csr, h, consumer, lo, mid), new SourceTask(csr, h, consumer, mid, hi));
+                return;
+            }
+            int n = csr.getVertexNum();
+            long[] dist = new long[n];
+            int[] row = new int[n];
+            IndexedBinaryHeap heap = new IndexedBinaryHeap(n);
+            for (int s = lo; s < hi; s++) {
+                dijkstra(s, dist, heap);
+                for (int v = 0; v < n; v++) {
+                    row[v] = dist[v] == Long.MAX_VALUE ? INF : (int) (dist[v] - h[s] + h[v]);
+                }
+                consumer.accept(s, row);
+            }
+        }
+
+        // 在重新赋权的图上执行Dijkstra, 边权在松弛时计算
+        private void dijkstra(int source, long[] dist, IndexedBinaryHeap heap) {
+            Arrays.fill(dist, Long.MAX_VALUE);
+            dist[source] = 0;
+            heap.insert(source, 0);
+            while (!heap.isEmpty()) {
+                int u = heap.deleteMin();
+                long du = dist[u] + h[u];
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    int v = csr.target(e);
+                    long newDist = du + csr.weight(e) - h[v];
+                    if (newDist < dist[v]) {
+                        dist[v] = newDist;
+                        heap.insertOrDecrease(v, newDist);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * 含负权边的随机图(BellmanFord.randomGraph)
+     *  小图与Floyd逐项比对, 大图只统计耗时并验证写入文件的结果
+     */
+    public static void main(String[] args) throws IOException {
+        CsrGraph small = CsrGraph.of(BellmanFord.randomGraph(600, 5, 42));
+        int n = small.getVertexNum();
+        int[] expected = FloydAlgorithm.floyd(small, null);
+        AtomicLong errors = new AtomicLong();
+        johnson(small, (source, dist) -> {
+            for (int v = 0; v < n; v++) {
+                if (dist[v] != expected[source * n + v]) errors.incrementAndGet();
+            }
+        });
+        System.out.println(String.format("顶点 %s, 边 %s, 最小边权 %s: 与Floyd比对错误%s个",
+                n, small.getEdgeNum(), small.getMinWeight(), errors.get()));
+
+        CsrGraph large = CsrGraph.of(BellmanFord.randomGraph(5000, 5, 7));
+        int m = large.getVertexNum();
+        File file = File.createTempFile("johnson", ".bin");
+        file.deleteOnExit();
+        long start = System.nanoTime();
+        johnson(large, file, ForkJoinPool.commonPool());
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        // 抽查一行: 满足三角不等式, 且每个可达顶点都有一条入边取到等号
+        int source = 123;
+        int[] row = readRow(file, m, source);
+        CsrGraph reverse = large.transpose();
+        errors.set(row[source] == 0 ? 0 : 1);
+        for (int v = 0; v < m; v++) {
+            if (row[v] == INF) continue;
+            boolean tight = v == source;
+            for (int e = large.edgeBegin(v), end = large.edgeEnd(v); e < end; e++) {
+                int t = large.target(e);
+                if (row[t] == INF || row[t] > row[v] + large.weight(e)) errors.incrementAndGet();
+            }
+            for (int e = reverse.edgeBegin(v), end = reverse.edgeEnd(v); e < end; e++) {
+                int u = reverse.target(e);
+                if (row[u] != INF && row[u] + reverse.weight(e) == row[v]) tight = true;
+            }
+            if (!tight) errors.incrementAndGet();
+        }
+        System.out.println(String.format("顶点 %s, 边 %s: 写入 %s MB 文件 %s ms, 抽查行错误%s个",
+                m, large.getEdgeNum(), file.length() >> 20, elapsed, errors.get()));
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.algds.graph.algorithm;
 
+import org.algds.graph.adjacency.CsrGraph;
 import org.algds.graph.adjacency.Graph;
 import org.algds.graph.adjacency.Edge;
 import org.algds.graph.adjacency.Label;
@@ -38,7 +39,9 @@ public class KosarajuScc {
             if (!graphR.getVertices().containsKey(newFrom.getId())) {
                 graphR.addVertex(newFrom); // 添加顶点
             }
-            for (Edge edge : vertex.getEdgeList()) {
+            List<Edge> edges = vertex.getEdges();
+            for (int j = 0; j < edges.size(); j++) {
+                Edge edge = edges.get(j);
                 Vertex newTo = new Vertex(edge.getTo().getId(), edge.getTo().getName(), edge.getTo().getLabel());
                 if (!graphR.getVertices().containsKey(newTo.getId())) {
                     graphR.addVertex(newTo); // 添加顶点
@@ -70,6 +73,74 @@ public class KosarajuScc {
         return result;
     }
 
+    /**
+     * kosaraju算法求有向图强连通分量 (CSR快照版本)
+     *  两次DFS均使用显式栈, 第二次DFS直接在CSR反向图上进行, 不再复制顶点和边
+     *
+     * @param csr         CSR快照
+     * @param componentOf 输出: 顶点下标 -> 强连通分量编号(从0开始)
+     * @return 强连通分量个数
+     */
+    public static int kosaraju(CsrGraph csr, int[] componentOf) {
+        int n = csr.getVertexNum();
+        int[] stack = new int[n];
+        int[] cursor = new int[n]; // 栈中顶点下一条待访问的出边
+
+        // 1 第一次深度优先遍历, 按完成顺序记录顶点
+        int[] finishOrder = new int[n];
+        int finished = 0;
+        boolean[] visited = new boolean[n];
+        for (int s = 0; s < n; s++) {
+            if (visited[s]) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = s;
+            visited[s] = true;
+            cursor[s] = csr.edgeBegin(s);
+            while (top > 0) {
+                int u = stack[top - 1];
+                if (cursor[u] < csr.edgeEnd(u)) {
+                    int v = csr.target(cursor[u]++);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        cursor[v] = csr.edgeBegin(v);
+                        stack[top++] = v;
+                    }
+                } else {
+                    top--;
+                    finishOrder[finished++] = u;
+                }
+            }
+        }
+
+        // 2 按逆后序在反向图上遍历, 每次遍历到的顶点集合即为一个强连通分量
+        CsrGraph graphR = csr.transpose();
+        Arrays.fill(componentOf, 0, n, -1);
+        int counter = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int s = finishOrder[i];
+            if (componentOf[s] != -1) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = s;
+            componentOf[s] = counter;
+            while (top > 0) {
+                int u = stack[--top];
+                for (int e = graphR.edgeBegin(u), end = graphR.edgeEnd(u); e < end; e++) {
+                    int v = graphR.target(e);
+                    if (componentOf[v] == -1) {
+                        componentOf[v] = counter;
+                        stack[top++] = v;
+                    }
+                }
+            }
+            counter++;
+        }
+        return counter;
+    }
+
     /**
      * 首次DFS遍历获取有向图你后续序列
      *
@@ -83,7 +154,9 @@ public class KosarajuScc {
             return stack;
         }
         visited.add(curVertex.getId());
-        for (Edge edge : curVertex.getEdgeList()) {
+        List<Edge> edges = curVertex.getEdges();
+        for (int j = 0; j < edges.size(); j++) {
+            Edge edge = edges.get(j);
             Vertex neighbor = edge.getTo();
             if (!visited.contains(neighbor.getId())) {
                 dfs(neighbor, visited, stack);
@@ -112,7 +185,9 @@ public class KosarajuScc {
         scc.add(vertex);
         sccMap.put(vertex.getId(), counter);
         visited.add(vertex.getId());
-        for (Edge edge : vertex.getEdgeList()) {
+        List<Edge> edges = vertex.getEdges();
+        for (int j = 0; j < edges.size(); j++) {
+            Edge edge = edges.get(j);
             Vertex to = edge.getTo();
             if (!visited.contains(to.getId())) {
                 rdfs(graphR, to.getId(), visited, scc, sccMap, counter);
@@ -126,6 +201,43 @@ public class KosarajuScc {
         List<List<Vertex>> kosaraju;
         Map<Integer, Integer> sccMap;
         Integer counter;
+
+        /**
+         * 由CSR快照上的分量编号数组组装结果, 分量编号转换为从1开始
+         *
+         * @param csr         CSR快照
+         * @param componentOf 顶点下标 -> 强连通分量编号(从0开始)
+         * @param count       强连通分量个数
+         */
+        static Result of(CsrGraph csr, int[] componentOf, int count) {
+            List<List<Vertex>> components = new ArrayList<>(count);
+            for (int c = 0; c < count; c++) {
+                components.add(new ArrayList<>());
+            }
+            Map<Integer, Integer> sccMap = new HashMap<>();
+            for (int v = 0; v < csr.getVertexNum(); v++) {
+                components.get(componentOf[v]).add(csr.vertexOf(v));
+                sccMap.put(csr.idOf(v), componentOf[v] + 1);
+            }
+
+            Result result = new Result();
+            result.kosaraju = components;
+            result.sccMap = sccMap;
+            result.counter = count;
+            return result;
+        }
+
+        public List<List<Vertex>> getKosaraju() {
+            return kosaraju;
+        }
+
+        public Map<Integer, Integer> getSccMap() {
+            return sccMap;
+        }
+
+        public Integer getCounter() {
+            return counter;
+        }
     }
 
     /**
@@ -188,6 +300,12 @@ public class KosarajuScc {
             System.out.println(scc);
         }
         System.out.println(kosarajuResult.sccMap);
+
+        // CSR快照上求强连通分量
+        CsrGraph csr = CsrGraph.of(graph);
+        int[] componentOf = new int[csr.getVertexNum()];
+        int count = kosaraju(csr, componentOf);
+        System.out.println(String.format("CSR版本共识别%s个强连通分量: %s", count, Arrays.toString(componentOf)));
     }
 
 }
@@ -0,0 +1,448 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import static org.algds.graph.algorithm.ShortestPath.INF;
+
+/**
+ * ALT(A*, Landmarks, Triangle inequality) 距离下界索引
+ *
+ * 预处理: 选出K个地标L, 对每个地标求 d(L,v) (原图Dijkstra) 与 d(v,L) (反向图Dijkstra)
+ * 查询:   由三角不等式, 对任意地标L
+ *          d(v,t) >= d(L,t) - d(L,v)
+ *          d(v,t) >= d(v,L) - d(t,L)
+ *        取全部地标上的最大值作为A*启发函数, 该下界可采纳且一致
+ *
+ * 地标选择:
+ *  FARTHEST 依次选取距已选地标最远的顶点, 不可达的顶点优先(覆盖其他连通分量)
+ *  AVOID    以随机根的最短路径树估计下界最差的区域, 沿子树权重最大的分支走到叶子作为新地标
+ * 两种策略都需要逐个选取, 选取阶段顺序计算正向距离; 反向距离表在ForkJoinPool上并行计算, 每个地标一次Dijkstra
+ *
+ * 距离表按顶点连续存放(forward[v * K + i]), 一次估计只读取两段连续的K个int
+ * 索引与构建时的CSR快照按稠密下标对应, 可以序列化到文件; 实例不可变, 可被多个查询线程共享
+ */
+public class LandmarkIndex implements PointToPointShortestPath.Heuristic {
+
+    private static final int MAGIC = 0x414C0001; // 文件头: "AL" + 版本1
+
+    public enum Selection {
+        FARTHEST, AVOID
+    }
+
+    private final int[] ids;        // 稠密下标对应的顶点ID, 用于校验图是否一致
+    private final int[] landmarks;  // 地标的稠密下标
+    private final int[] forward;    // forward[v * K + i] = d(landmarks[i], v)
+    private final int[] backward;   // backward[v * K + i] = d(v, landmarks[i])
+
+    private LandmarkIndex(int[] ids, int[] landmarks, int[] forward, int[] backward) {
+        this.ids = ids;
+        this.landmarks = landmarks;
+        this.forward = forward;
+        this.backward = backward;
+    }
+
+
+    // 1 构建 ***********************************************************************************************************
+
+    /**
+     * 以FARTHEST策略选取k个地标, 在公共ForkJoinPool上计算距离表
+     */
+    public static LandmarkIndex build(CsrGraph csr, int k) {
+        return build(csr, k, Selection.FARTHEST, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 选取k个地标并计算距离表, k超过顶点数时取顶点数; 空图或k为0时返回没有地标的索引, 估计值恒为0
+     */
+    public static LandmarkIndex build(CsrGraph csr, int k, Selection selection, ForkJoinPool pool) {
+        int n = csr.getVertexNum();
+        k = Math.max(0, Math.min(k, n));
+        if (k == 0) {
+            return new LandmarkIndex(ids(csr), new int[0], new int[0], new int[0]);
+        }
+        int[] forward = new int[n * k];
+        int[] landmarks = selection == Selection.AVOID
+                ? selectAvoid(csr, k, forward)
+                : selectFarthest(csr, k, forward);
+        int[] backward = new int[n * k];
+        pool.invoke(new RowTask(csr.transpose(), landmarks, backward, 0, k));
+        return new LandmarkIndex(ids(csr), landmarks, forward, backward);
+    }
+
+    /**
+     * 使用指定的地标(稠密下标), 正反两个方向的距离表都并行计算
+     */
+    public static LandmarkIndex build(CsrGraph csr, int[] landmarks, ForkJoinPool pool) {
+        int n = csr.getVertexNum();
+        int k = landmarks.length;
+        int[] forward = new int[n * k];
+        int[] backward = new int[n * k];
+        RowTask forwardTask = new RowTask(csr, landmarks, forward, 0, k);
+        RowTask backwardTask = new RowTask(csr.transpose(), landmarks, backward, 0, k);
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(forwardTask, backwardTask)));
+        return new LandmarkIndex(ids(csr), landmarks.clone(), forward, backward);
+    }
+
+    /**
+     * 每次选取当前与全部已选地标最小距离最大的顶点, 第一个地标为距顶点0最远的顶点
+     */
+    private static int[] selectFarthest(CsrGraph csr, int k, int[] forward) {
+        int n = csr.getVertexNum();
+        if (n == 0 || k == 0) return new int[0];
+        int[] landmarks = new int[k];
+        int[] dist = new int[n], pred = new int[n];
+        int[] nearest = new int[n]; // 到已选地标的最小距离
+        Arrays.fill(nearest, INF);
+
+        ShortestPath.dijkstra(csr, 0, dist, pred);
+        int next = farthest(dist, nearest);
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = next;
+            ShortestPath.dijkstra(csr, next, dist, pred);
+            store(dist, forward, i, k);
+            nearest[next] = 0;
+            for (int v = 0; v < n; v++) {
+                nearest[v] = Math.min(nearest[v], dist[v]);
+            }
+            next = farthest(nearest, nearest);
+        }
+        return landmarks;
+    }
+
+    // dist最大的顶点, 优先返回dist为INF且尚未成为地标(nearest不为0)的顶点
+    private static int farthest(int[] dist, int[] nearest) {
+        int best = -1;
+        for (int v = 0; v < dist.length; v++) {
+            if (nearest[v] == 0) continue;
+            if (dist[v] == INF) return v;
+            if (best == -1 || dist[v] > dist[best]) best = v;
+        }
+        return best == -1 ? 0 : best;
+    }
+
+    /**
+     * avoid策略 (Goldberg & Werneck):
+     *  从随机根r求最短路径树, 顶点权重为 d(r,v) - 已选地标给出的下界, 即下界的误差
+     *  子树大小为子树内的权重和, 包含地标的子树大小记为0 (该区域已有地标覆盖)
+     *  从r出发每次进入大小最大的子树, 到达的叶子作为新地标
+     */
+    private static int[] selectAvoid(CsrGraph csr, int k, int[] forward) {
+        int n = csr.getVertexNum();
+        if (n == 0 || k == 0) return new int[0];
+        Random random = new Random(n);
+        int[] landmarks = new int[k];
+        boolean[] chosen = new boolean[n];
+        int[] dist = new int[n], pred = new int[n];
+        long[] size = new long[n];
+        int[] childOffsets = new int[n + 1], children = new int[n], order = new int[n];
+
+        for (int i = 0; i < k; i++) {
+            int root = random.nextInt(n);
+            ShortestPath.dijkstra(csr, root, dist, pred);
+
+            // 最短路径树的孩子列表
+            Arrays.fill(childOffsets, 0);
+            for (int v = 0; v < n; v++) {
+                if (pred[v] != -1) childOffsets[pred[v] + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                childOffsets[v + 1] += childOffsets[v];
+            }
+            int[] fill = Arrays.copyOf(childOffsets, n);
+            for (int v = 0; v < n; v++) {
+                if (pred[v] != -1) children[fill[pred[v]]++] = v;
+            }
+
+            // 层序遍历得到父先于子的顺序, 逆序累加子树大小
+            int count = 0;
+            order[count++] = root;
+            for (int head = 0; head < count; head++) {
+                int u = order[head];
+                for (int c = childOffsets[u]; c < childOffsets[u + 1]; c++) {
+                    order[count++] = children[c];
+                }
+            }
+            for (int j = count - 1; j >= 0; j--) {
+                int v = order[j];
+                if (size[v] == -1 || chosen[v]) { // 子树中有地标
+                    size[v] = 0;
+                    if (pred[v] != -1) size[pred[v]] = -1;
+                    continue;
+                }
+                size[v] += dist[v] - lowerBound(forward, i, k, root, v);
+                if (pred[v] != -1 && size[pred[v]] != -1) size[pred[v]] += size[v];
+            }
+
+            // 沿子树大小最大的孩子走到叶子
+            int v = root;
+            if (size[root] > 0) {
+                while (true) {
+                    int best = -1;
+                    for (int c = childOffsets[v]; c < childOffsets[v + 1]; c++) {
+                        int child = children[c];
+                        if (size[child] > 0 && (best == -1 || size[child] > size[best])) best = child;
+                    }
+                    if (best == -1) break;
+                    v = best;
+                }
+            }
+            for (int j = 0; j < count; j++) {
+                size[order[j]] = 0;
+            }
+            while (chosen[v]) { // 整棵树都已被覆盖
+                v = random.nextInt(n);
+            }
+
+            chosen[v] = true;
+            landmarks[i] = v;
+            ShortestPath.dijkstra(csr, v, dist, pred);
+            store(dist, forward, i, k);
+        }
+        return landmarks;
+    }
+
+    // 只用前count个地标的正向距离计算 d(u,v) 的下界
+    private static int lowerBound(int[] forward, int count, int k, int u, int v) {
+        int bound = 0;
+        for (int i = 0; i < count; i++) {
+            int du = forward[u * k + i], dv = forward[v * k + i];
+            if (du != INF && dv != INF) bound = Math.max(bound, dv - du);
+        }
+        return bound;
+    }
+
+    // 把一个地标的距离数组写入表的第i列
+    private static void store(int[] dist, int[] table, int i, int k) {
+        for (int v = 0; v < dist.length; v++) {
+            table[v * k + i] = dist[v];
+        }
+    }
+
+    private static int[] ids(CsrGraph csr) {
+        int[] ids = new int[csr.getVertexNum()];
+        for (int v = 0; v < ids.length; v++) {
+            ids[v] = csr.idOf(v);
+        }
+        return ids;
+    }
+
+    /**
+     * 地标区间 [lo, hi) 的距离表, 对半拆分直到每个任务一个地标
+     */
+    @SuppressWarnings("serial")
+    private static class RowTask extends RecursiveAction {
+        final CsrGraph csr;
+        final int[] landmarks, table;
+        final int lo, hi;
+
+        RowTask(CsrGraph csr, int[] landmarks, int[] table, int lo, int hi) {
+            this.csr = csr;
+            this.landmarks = landmarks;
+            this.table = table;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new RowTask(csr, landmarks, table, lo, mid), new RowTask(csr, landmarks, table, mid, hi));
+                return;
+            }
+            int n = csr.getVertexNum();
+            int[] dist = new int[n], pred = new int[n];
+            ShortestPath.dijkstra(csr, landmarks[lo], dist, pred);
+            store(dist, table, lo, landmarks.length);
+        }
+    }
+
+
+    // 2 持久化 *********************************************************************************************************
+
+    public void save(File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            save(out);
+        }
+    }
+
+    /**
+     * 写出索引: 文件头、顶点ID、地标、正反距离表; 不关闭输出流
+     */
+    public void save(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(ids.length);
+        out.writeInt(landmarks.length);
+        for (int id : ids) out.writeInt(id);
+        for (int landmark : landmarks) out.writeInt(landmark);
+        for (int d : forward) out.writeInt(d);
+        for (int d : backward) out.writeInt(d);
+        out.flush();
+    }
+
+    public static LandmarkIndex load(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * 读取save写出的索引; 不关闭输入流
+     */
+    public static LandmarkIndex load(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("不是地标索引文件");
+        }
+        int n = in.readInt();
+        int k = in.readInt();
+        int[] ids = readInts(in, n);
+        int[] landmarks = readInts(in, k);
+        int[] forward = readInts(in, n * k);
+        int[] backward = readInts(in, n * k);
+        return new LandmarkIndex(ids, landmarks, forward, backward);
+    }
+
+    private static int[] readInts(DataInputStream in, int length) throws IOException {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+
+    // 3 查询 ***********************************************************************************************************
+
+    public int getVertexNum() {
+        return ids.length;
+    }
+
+    public int getLandmarkNum() {
+        return landmarks.length;
+    }
+
+    // 地标的稠密下标
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * 索引是否由与csr顶点集合相同的图构建, 从文件加载后使用前应检查
+     */
+    public boolean matches(CsrGraph csr) {
+        if (csr.getVertexNum() != ids.length) return false;
+        for (int v = 0; v < ids.length; v++) {
+            if (csr.idOf(v) != ids[v]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * d(v, target) 的下界, 地标与v或target不连通时该地标不参与估计
+     */
+    @Override
+    public int estimate(int v, int target) {
+        int k = landmarks.length;
+        int bound = 0;
+        for (int i = 0, vi = v * k, ti = target * k; i < k; i++, vi++, ti++) {
+            int lt = forward[ti], lv = forward[vi];
+            if (lt != INF && lv != INF && lt - lv > bound) bound = lt - lv;
+            int vl = backward[vi], tl = backward[ti];
+            if (vl != INF && tl != INF && vl - tl > bound) bound = vl - tl;
+        }
+        return bound;
+    }
+
+
+    /**
+     * 网格测试图, 边权与坐标无关, 直线距离启发函数不可用; 与双向Dijkstra对比出堆顶点数
+     */
+    public static void main(String[] args) throws IOException {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        int rows = 200;
+        Random random = new Random(42);
+        Vertex[] vertices = new Vertex[rows * rows];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            graph.addVertex(vertices[i]);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < vertices.length; i++) {
+            if (i % rows + 1 < rows) {
+                graph.addEdge(edgeId++, vertices[i], vertices[i + 1], 1 + random.nextInt(100), edgeLabel);
+                graph.addEdge(edgeId++, vertices[i + 1], vertices[i], 1 + random.nextInt(100), edgeLabel);
+            }
+            if (i + rows < vertices.length) {
+                graph.addEdge(edgeId++, vertices[i], vertices[i + rows], 1 + random.nextInt(100), edgeLabel);
+                graph.addEdge(edgeId++, vertices[i + rows], vertices[i], 1 + random.nextInt(100), edgeLabel);
+            }
+        }
+        CsrGraph csr = CsrGraph.of(graph);
+        int n = csr.getVertexNum();
+
+        for (Selection selection : Selection.values()) {
+            long start = System.nanoTime();
+            LandmarkIndex built = build(csr, 16, selection, ForkJoinPool.commonPool());
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+            // 写入文件再读回
+            File file = File.createTempFile("landmarks", ".bin");
+            file.deleteOnExit();
+            built.save(file);
+            LandmarkIndex index = load(file);
+            System.out.println(String.format("%s: 地标 %s 个, 构建 %s ms, 文件 %s KB, 与图一致 %s",
+                    selection, index.getLandmarkNum(), elapsed, file.length() / 1024, index.matches(csr)));
+
+            // 随机查询与dijkstra对比
+            PointToPointShortestPath search = new PointToPointShortestPath(csr);
+            int[] dist = new int[n], pred = new int[n];
+            int queries = 200, errors = 0;
+            long bidirectional = 0, alt = 0;
+            Random queryRandom = new Random(7);
+            for (int q = 0; q < queries; q++) {
+                int s = queryRandom.nextInt(n), t = queryRandom.nextInt(n);
+                ShortestPath.dijkstra(csr, s, dist, pred);
+                if (index.estimate(s, t) > dist[t]) errors++;
+                int d1 = search.bidirectionalDijkstra(s, t);
+                bidirectional += search.getSettledCount();
+                int d2 = search.aStar(s, t, index);
+                alt += search.getSettledCount();
+                int[] path = search.path();
+                if (d1 != dist[t] || d2 != dist[t] || path[0] != s || path[path.length - 1] != t) {
+                    errors++;
+                }
+            }
+            System.out.println(String.format("    %s次随机查询: 错误%s个, 平均出堆顶点数 双向Dijkstra %s, ALT %s",
+                    queries, errors, bidirectional / queries, alt / queries));
+        }
+    }
+
+}
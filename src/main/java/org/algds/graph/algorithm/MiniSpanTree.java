@@ -1,11 +1,19 @@
 package org.algds.graph.algorithm;
 
+import org.algds.graph.adjacency.CsrGraph;
 import org.algds.graph.adjacency.Graph;
 import org.algds.graph.adjacency.Edge;
 import org.algds.graph.adjacency.Label;
 import org.algds.graph.adjacency.Vertex;
+import org.algds.tree.ds.IndexedBinaryHeap;
+import org.algds.tree.unionfind.ConcurrentDisjointSet;
+import org.algds.tree.unionfind.DisjointSet;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * 最小生成树（MST）的性质：
@@ -23,33 +31,77 @@ public class MiniSpanTree {
 
         if (graph.getEdgeNum()==0) return Collections.emptyList();
 
+        CsrGraph csr = CsrGraph.of(graph);
+
+        // 每个连通分量各生成一棵树
         List<Edge> mst = new ArrayList<>();
-        PriorityQueue<Edge> edgeQueue = new PriorityQueue<>(Comparator.comparingInt(e -> e.getWeight())); // 存储访问过的节点集合对应的边集合，并且按照权重排序
-        Set<Vertex> visited = new HashSet<>(); // 存储访问过的节点集合
-
-        // 从第一个节点开始
-        Vertex startNode = graph.getVertices().get(3);
-        visited.add(startNode);
-        edgeQueue.addAll(startNode.getEdgeList());
-
-        while (!edgeQueue.isEmpty() && visited.size() < graph.getVertexNum()) {
-            Edge minEdge = edgeQueue.poll();
-            Vertex nextNode = minEdge.getTo();
-
-            if (!visited.contains(nextNode)) {
-                visited.add(nextNode);
-                mst.add(minEdge);
-
-                // 添加新节点的所有边到优先队列
-                for (Edge edge : nextNode.getEdgeList()) {
-                    if (!visited.contains(edge.getTo())) {
-                        edgeQueue.add(edge);
-                    }
+        for (int e : primMST(csr)) {
+            mst.add(csr.edgeOf(e));
+        }
+        return mst;
+    }
+
+    /**
+     * prim算法求解最小生成森林 (CSR快照版本): 依次从每个未访问的顶点出发生成一棵树
+     *
+     * @return 生成森林包含的边下标, 可通过 csr.edgeOf 取回原始边
+     */
+    public static int[] primMST(CsrGraph csr) {
+        int n = csr.getVertexNum();
+        IndexedBinaryHeap queue = new IndexedBinaryHeap(n);
+        boolean[] visited = new boolean[n];
+        int[] minEdge = new int[n];
+        int[] mst = new int[Math.max(0, n - 1)];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (!visited[v]) {
+                count = prim(csr, v, queue, visited, minEdge, mst, count);
+            }
+        }
+        return Arrays.copyOf(mst, count);
+    }
+
+
+    /**
+     * prim算法求解最小生成树 (CSR快照版本)
+     *  索引二叉堆中每个树外顶点只保留一个优先级: 连接到当前树的最小边权, 堆大小不超过顶点数
+     *
+     * @param csr   CSR快照
+     * @param start 起点稠密下标
+     * @return 生成树包含的边下标(按加入顺序), 可通过 csr.edgeOf 取回原始边
+     */
+    public static int[] primMST(CsrGraph csr, int start) {
+        int n = csr.getVertexNum();
+        int[] mst = new int[Math.max(0, n - 1)];
+        int count = prim(csr, start, new IndexedBinaryHeap(n), new boolean[n], new int[n], mst, 0);
+        return Arrays.copyOf(mst, count);
+    }
+
+    /**
+     * 从start生成一棵树, 边下标从mst[count]开始写入, 返回写入后的边数
+     *
+     * @param visited 存储访问过的节点集合
+     * @param minEdge 树外顶点 -> 连接到树的最小边下标
+     */
+    private static int prim(CsrGraph csr, int start, IndexedBinaryHeap queue, boolean[] visited, int[] minEdge, int[] mst, int count) {
+        int u = start;
+        while (true) {
+            visited[u] = true;
+
+            // 更新新节点邻接顶点到树的最小边
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                int v = csr.target(e);
+                if (!visited[v] && queue.insertOrDecrease(v, csr.weight(e))) {
+                    minEdge[v] = e;
                 }
             }
+
+            if (queue.isEmpty()) break;
+            u = queue.deleteMin();
+            mst[count++] = minEdge[u];
         }
 
-        return mst;
+        return count;
     }
 
 
@@ -61,37 +113,455 @@ public class MiniSpanTree {
 
         if (graph.getEdgeNum()==0) return Collections.emptyList();
 
+        // 转为CSR快照, 以打包的long键排序, 避免装箱的比较器
+        CsrGraph csr = CsrGraph.of(graph);
+
         List<Edge> mst = new ArrayList<>();
+        for (int e : kruskalMST(csr)) {
+            mst.add(csr.edgeOf(e));
+        }
+        return mst;
+    }
+
+
+    /**
+     * Kruskal算法求解最小生成森林 (CSR快照版本)
+     *  排序键为 (权重<<32 | 边下标) 打包的long值, 并查集为基于int数组的DisjointSet
+     *
+     * @param csr CSR快照
+     * @return 生成森林包含的边下标, 可通过 csr.edgeOf 取回原始边
+     */
+    public static int[] kruskalMST(CsrGraph csr) {
+        int n = csr.getVertexNum();
+        int m = csr.getEdgeNum();
+        if (n == 0 || m == 0) return new int[0];
 
         // 收集所有边,按权重从小到大排序
-        List<Edge> allEdges = new ArrayList<>();
-        for (Vertex vertex : graph.getVertices().values()) {
-            allEdges.addAll(vertex.getEdgeList());
+        long[] keys = new long[m];
+        int[] from = new int[m];
+        for (int u = 0; u < n; u++) {
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                keys[e] = ((long) csr.weight(e) << 32) | e;
+                from[e] = u;
+            }
         }
-        allEdges.sort(Comparator.comparingInt(e -> e.getWeight()));
-
+        Arrays.sort(keys);
 
         // 使用【并查集】来检测环
-        UnionFind uf = new UnionFind(graph);
+        DisjointSet uf = new DisjointSet(n);
+
+        int[] mst = new int[n - 1];
+        int count = 0;
+        for (int i = 0; i < m && count < n - 1; i++) {
+            int e = (int) keys[i];
+            if (uf.union(from[e], csr.target(e))) { // 两端不在同一集合
+                mst[count++] = e;
+            }
+        }
+
+        return Arrays.copyOf(mst, count);
+    }
 
-        for (Edge edge : allEdges) {
-            Vertex from = edge.getFrom();
-            Vertex to = edge.getTo();
 
-            if (!uf.isConnected(from, to)) { // 判断两个集合能否联通
-                mst.add(edge);
-                uf.union(from, to);
+    /**
+     * Filter-Kruskal算法求解最小生成树, 使用公共ForkJoinPool
+     *
+     */
+    public static List<Edge> filterKruskalMST(Graph graph) {
+        CsrGraph csr = CsrGraph.of(graph);
+        List<Edge> mst = new ArrayList<>();
+        for (int e : filterKruskalMST(csr, ForkJoinPool.commonPool())) {
+            mst.add(csr.edgeOf(e));
+        }
+        return mst;
+    }
+
+    /**
+     * Filter-Kruskal算法求解最小生成森林 (CSR快照版本)
+     *  Kruskal通常在处理完一小段最轻的边后就已连通全部顶点, 对全部边排序是浪费; 按快速排序的方式递归:
+     *   1 以三数取中的键为枢轴, 把边划分为 <= 枢轴 与 > 枢轴 两部分
+     *   2 先递归处理轻的部分
+     *   3 过滤重的部分: 删除两端已连通的边, 再递归处理剩下的边
+     *  区间不超过BASE时直接排序后执行Kruskal; 森林边数达到 n-1 后剩余的边不再处理
+     *  划分与过滤在pool上按块并行(每块先计数, 前缀和后按原顺序写入临时数组), 相当于一次只排序到需要的深度的并行快速排序
+     *  区间不超过一块或pool只有一个线程时原地顺序划分与过滤
+     *  排序键与kruskalMST相同, 为 (权重<<32 | 边下标) 打包的long值, 因此结果与kruskalMST完全一致
+     *
+     * @return 生成森林包含的边下标(按权重升序), 可通过 csr.edgeOf 取回原始边
+     */
+    public static int[] filterKruskalMST(CsrGraph csr, ForkJoinPool pool) {
+        int n = csr.getVertexNum();
+        int m = csr.getEdgeNum();
+        if (n == 0 || m == 0) return new int[0];
+
+        FilterKruskal state = new FilterKruskal(csr, pool);
+        state.kruskal(0, m);
+        return Arrays.copyOf(state.mst, state.count);
+    }
+
+    /**
+     * Filter-Kruskal的状态; 递归本身是顺序的, 只有划分与过滤使用并行任务, 同一时刻只有一次划分或过滤
+     */
+    private static class FilterKruskal {
+        static final int BASE = 1 << 14;   // 不超过该大小的区间直接排序
+        static final int BLOCK = 1 << 14;  // 并行划分与过滤时每块的边数
+        static final int PARTITION = 0, FILTER = 1;
+
+        final CsrGraph csr;
+        final ForkJoinPool pool;
+        final int[] from;
+        final long[] keys, tmp;
+        final DisjointSet uf;
+        final int[] mst;
+        int count;
+
+        // 当前划分或过滤的参数
+        int mode, lo, hi;
+        long pivot;
+        boolean inPlace;
+        int[] leftCount, rightCount; // 每块中左部分(<= 枢轴或保留)与右部分的键数, 前缀和后为写入位置
+
+        FilterKruskal(CsrGraph csr, ForkJoinPool pool) {
+            this.csr = csr;
+            this.pool = pool;
+            int n = csr.getVertexNum(), m = csr.getEdgeNum();
+            from = new int[m];
+            keys = new long[m];
+            tmp = new long[m];
+            for (int u = 0; u < n; u++) {
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    keys[e] = ((long) csr.weight(e) << 32) | e;
+                    from[e] = u;
+                }
+            }
+            uf = new DisjointSet(n);
+            mst = new int[n - 1];
+        }
+
+        // 处理 keys[lo, hi) 中的边, 其中的键都大于已处理的键
+        void kruskal(int lo, int hi) {
+            while (hi - lo > BASE && count < mst.length) {
+                int mid = lo + split(PARTITION, lo, hi, pivot(lo, hi));
+                kruskal(lo, mid);
+                if (count == mst.length) return;
+                lo = mid;
+                hi = lo + split(FILTER, lo, hi, 0);
+            }
+            if (count == mst.length) return;
+
+            Arrays.sort(keys, lo, hi);
+            for (int i = lo; i < hi && count < mst.length; i++) {
+                int e = (int) keys[i];
+                if (uf.union(from[e], csr.target(e))) {
+                    mst[count++] = e;
+                }
+            }
+        }
+
+        // 三数取中: 键互不相同, 中位数既不是最小也不是最大, 划分后两部分都不为空
+        long pivot(int lo, int hi) {
+            int len = hi - lo;
+            long a = keys[lo + len / 4], b = keys[lo + len / 2], c = keys[lo + len / 4 * 3];
+            return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+        }
+
+        // 把 keys[lo, hi) 重排为左部分在前、右部分在后(过滤时丢弃右部分), 返回左部分的键数
+        int split(int mode, int lo, int hi, long pivot) {
+            this.mode = mode;
+            this.lo = lo;
+            this.hi = hi;
+            this.pivot = pivot;
+            int blocks = (hi - lo + BLOCK - 1) / BLOCK;
+            inPlace = blocks == 1 || pool.getParallelism() == 1;
+            if (inPlace) {
+                return splitInPlace();
+            }
+
+            // 两遍并行: 先计数, 前缀和后各块按原顺序写入tmp, 再复制回keys
+            leftCount = new int[blocks + 1];
+            rightCount = new int[blocks + 1];
+            pool.invoke(new SplitTask(this, 0, 0, blocks));
+            for (int b = 0; b < blocks; b++) {
+                leftCount[b + 1] += leftCount[b];
+                rightCount[b + 1] += rightCount[b];
+            }
+            pool.invoke(new SplitTask(this, 1, 0, blocks));
+            int left = leftCount[blocks];
+            int kept = mode == PARTITION ? hi - lo : left;
+            System.arraycopy(tmp, lo, keys, lo, kept);
+            return left;
+        }
+
+        // 顺序执行时原地一遍完成: 划分为快速排序的双指针交换, 过滤为向前压缩
+        int splitInPlace() {
+            if (mode == FILTER) {
+                int k = lo;
+                for (int i = lo; i < hi; i++) {
+                    if (isLeft(keys[i])) keys[k++] = keys[i];
+                }
+                return k - lo;
+            }
+            int i = lo, j = hi - 1;
+            while (true) {
+                while (i <= j && keys[i] <= pivot) i++;
+                while (i <= j && keys[j] > pivot) j--;
+                if (i > j) return i - lo;
+                long key = keys[i];
+                keys[i] = keys[j];
+                keys[j] = key;
+            }
+        }
+
+        boolean isLeft(long key) {
+            if (mode == PARTITION) return key <= pivot;
+            int e = (int) key;
+            if (inPlace) return uf.find(from[e]) != uf.find(csr.target(e));
+            return uf.root(from[e]) != uf.root(csr.target(e)); // 并行过滤时多个线程同时查找, 只读不压缩路径
+        }
+
+        // 第1遍: 块b中左、右部分的键数写入 leftCount[b + 1] 与 rightCount[b + 1]
+        void count(int b) {
+            int start = lo + b * BLOCK, end = Math.min(hi, start + BLOCK);
+            int left = 0;
+            for (int i = start; i < end; i++) {
+                if (isLeft(keys[i])) left++;
+            }
+            leftCount[b + 1] = left;
+            rightCount[b + 1] = end - start - left;
+        }
+
+        // 第2遍: 块b中的键写入tmp, 左部分从 lo + leftCount[b] 开始, 右部分从 lo + 左部分总数 + rightCount[b] 开始
+        void scatter(int b) {
+            int start = lo + b * BLOCK, end = Math.min(hi, start + BLOCK);
+            int l = lo + leftCount[b];
+            int r = lo + leftCount[leftCount.length - 1] + rightCount[b];
+            for (int i = start; i < end; i++) {
+                long key = keys[i];
+                if (isLeft(key)) {
+                    tmp[l++] = key;
+                } else if (mode == PARTITION) {
+                    tmp[r++] = key;
+                }
             }
+        }
+    }
+
+    // 块区间 [lo, hi), phase 0 为计数, 1 为写入
+    @SuppressWarnings("serial")
+    private static class SplitTask extends RecursiveAction {
+        final FilterKruskal state;
+        final int phase, lo, hi;
+
+        SplitTask(FilterKruskal state, int phase, int lo, int hi) {
+            this.state = state;
+            this.phase = phase;
+            this.lo = lo;
+            this.hi = hi;
+        }
 
-            // 如果已经连接了所有节点，提前退出
-            if (mst.size() == graph.getVertexNum() - 1) {
-                break;
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SplitTask(state, phase, lo, mid), new SplitTask(state, phase, mid, hi));
+                return;
             }
+            if (phase == 0) state.count(lo);
+            else state.scatter(lo);
         }
+    }
+
 
+    /**
+     * Boruvka算法求解最小生成森林, 使用公共ForkJoinPool
+     *
+     */
+    public static List<Edge> boruvkaMST(Graph graph) {
+        CsrGraph csr = CsrGraph.of(graph);
+        List<Edge> mst = new ArrayList<>();
+        for (int e : boruvkaMST(csr, ForkJoinPool.commonPool())) {
+            mst.add(csr.edgeOf(e));
+        }
         return mst;
     }
 
+    /**
+     * 并行Boruvka算法求解最小生成森林 (CSR快照版本), 边视为无向边
+     *  每轮:
+     *   1 并行扫描两端不在同一分量的边, 以CAS为每个分量记录最小的关联边, 同时统计每块中仍跨分量的边数
+     *   2 并行处理每个分量选出的边, 以无锁并查集合并两端分量, 合并成功的边加入森林
+     *   3 并行压缩边数组, 只保留跨分量的边
+     *  每轮分量数至少减半, 最多 log V 轮; 某轮没有分量选出边时结束, 非连通图得到最小生成森林
+     *  边按 (权重<<32 | 边下标) 比较, 权重相同的边也有唯一顺序, 因此各分量选出的边不会构成环
+     *
+     * @return 生成森林包含的边下标(升序), 可通过 csr.edgeOf 取回原始边
+     */
+    public static int[] boruvkaMST(CsrGraph csr, ForkJoinPool pool) {
+        return new Boruvka(csr).run(pool);
+    }
+
+    /**
+     * Boruvka的共享状态
+     *  sets   无锁并查集
+     *  best   分量根 -> 最小关联边的键, Long.MAX_VALUE 表示没有
+     */
+    private static class Boruvka {
+        static final int BLOCK = 1 << 14; // 边数组按块并行, 压缩时每块独立计数
+
+        final CsrGraph csr;
+        final int n;
+        final int[] from;
+        final ConcurrentDisjointSet sets;
+        final AtomicLongArray best;
+        int[] active, buffer;   // 仍跨分量的边, 压缩时写入buffer后交换
+        int activeCount;
+        int[] blockCount;       // 每块中仍跨分量的边数, 前缀和后为写入位置
+        final int[] mst;
+        final AtomicInteger mstCount = new AtomicInteger();
+
+        Boruvka(CsrGraph csr) {
+            this.csr = csr;
+            this.n = csr.getVertexNum();
+            int m = csr.getEdgeNum();
+            from = new int[m];
+            active = new int[m];
+            buffer = new int[m];
+            for (int u = 0; u < n; u++) {
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    from[e] = u;
+                    active[e] = e;
+                }
+            }
+            activeCount = m;
+            sets = new ConcurrentDisjointSet(n);
+            best = new AtomicLongArray(n);
+            for (int v = 0; v < n; v++) {
+                best.set(v, Long.MAX_VALUE);
+            }
+            mst = new int[Math.max(0, n - 1)];
+        }
+
+        int[] run(ForkJoinPool pool) {
+            while (activeCount > 0) {
+                int blocks = (activeCount + BLOCK - 1) / BLOCK;
+                blockCount = new int[blocks + 1];
+                pool.invoke(new BlockTask(this, 0, 0, blocks));                 // 1 最小关联边
+                int before = mstCount.get();
+                pool.invoke(new MergeTask(this, 0, n));                         // 2 合并
+                if (mstCount.get() == before) break;
+
+                for (int b = 0; b < blocks; b++) {                              // 3 压缩
+                    blockCount[b + 1] += blockCount[b];
+                }
+                pool.invoke(new BlockTask(this, 1, 0, blocks));
+                activeCount = blockCount[blocks];
+                int[] tmp = active;
+                active = buffer;
+                buffer = tmp;
+            }
+            int[] result = Arrays.copyOf(mst, mstCount.get());
+            Arrays.sort(result);
+            return result;
+        }
+
+        // 第1步: 块b中的边, 更新两端分量的最小边; 跨分量的边数写入blockCount[b + 1], 同分量的边标记为-1
+        void scan(int b) {
+            int lo = b * BLOCK, hi = Math.min(activeCount, lo + BLOCK);
+            int alive = 0;
+            for (int i = lo; i < hi; i++) {
+                int e = active[i];
+                int ru = sets.find(from[e]), rv = sets.find(csr.target(e));
+                if (ru == rv) {
+                    active[i] = -1;
+                    continue;
+                }
+                alive++;
+                long key = ((long) csr.weight(e) << 32) | e;
+                min(ru, key);
+                min(rv, key);
+            }
+            blockCount[b + 1] = alive;
+        }
+
+        // 第3步: 块b中未标记的边按原顺序写入buffer, 起始位置为前缀和blockCount[b]; 本轮合并后变为同分量的边在下一轮扫描时丢弃
+        void compact(int b) {
+            int lo = b * BLOCK, hi = Math.min(activeCount, lo + BLOCK);
+            int k = blockCount[b];
+            for (int i = lo; i < hi; i++) {
+                if (active[i] != -1) buffer[k++] = active[i];
+            }
+        }
+
+        void min(int root, long key) {
+            while (true) {
+                long current = best.get(root);
+                if (key >= current || best.compareAndSet(root, current, key)) return;
+            }
+        }
+
+        // 第2步: 顶点v若是上一步的分量根且选出了边, 合并两端
+        void merge(int v) {
+            long key = best.get(v);
+            if (key == Long.MAX_VALUE) return;
+            best.set(v, Long.MAX_VALUE);
+            int e = (int) key;
+            if (sets.union(from[e], csr.target(e))) { // 两个分量可能选出同一条边, 只有一次合并成功
+                mst[mstCount.getAndIncrement()] = e;
+            }
+        }
+    }
+
+    // 块区间 [lo, hi), mode 0 为扫描, 1 为压缩
+    @SuppressWarnings("serial")
+    private static class BlockTask extends RecursiveAction {
+        final Boruvka state;
+        final int mode, lo, hi;
+
+        BlockTask(Boruvka state, int mode, int lo, int hi) {
+            this.state = state;
+            this.mode = mode;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BlockTask(state, mode, lo, mid), new BlockTask(state, mode, mid, hi));
+                return;
+            }
+            if (mode == 0) state.scan(lo);
+            else state.compact(lo);
+        }
+    }
+
+    // 顶点区间 [lo, hi) 的合并
+    @SuppressWarnings("serial")
+    private static class MergeTask extends RecursiveAction {
+        static final int GRAIN = 1 << 14;
+        final Boruvka state;
+        final int lo, hi;
+
+        MergeTask(Boruvka state, int lo, int hi) {
+            this.state = state;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new MergeTask(state, lo, mid), new MergeTask(state, mid, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                state.merge(v);
+            }
+        }
+    }
+
 
     /**
      * 测试用例
@@ -185,55 +655,50 @@ public class MiniSpanTree {
             System.out.println(edge.getFrom().getName() + "->" + edge.getTo().getName() + ":" + edge.getWeight());
         }
 
-    }
-
-
-
-    /**
-     * 并查集
-     */
-    public static class UnionFind {
+        System.out.println("----------------------------------------");
 
-        private Map<Vertex, Vertex> parent; // 构造森林
-        private Map<Vertex, Integer> rank;
+        // CSR快照上执行Kruskal算法
+        System.out.println("Kruskal算法(CSR): ");
+        CsrGraph csr = CsrGraph.of(graph);
+        int total = 0;
+        for (int e : kruskalMST(csr)) {
+            Edge edge = csr.edgeOf(e);
+            total += edge.getWeight();
+            System.out.println(edge.getFrom().getName() + "->" + edge.getTo().getName() + ":" + edge.getWeight());
+        }
+        System.out.println("Total weight: " + total);
 
-        public UnionFind(Graph graph) {
-            parent = new HashMap<>();
-            rank = new HashMap<>();
+        System.out.println("----------------------------------------");
 
-            for (Vertex node : graph.getVertices().values()) {
-                parent.put(node, node);
-                rank.put(node, 0);
-            }
-        }
+        // Filter-Kruskal算法求最小生成树
+        System.out.println("Filter-Kruskal算法: ");
+        edges = filterKruskalMST(graph);
+        System.out.println("Total weight: " + edges.stream().map(item -> item.getWeight()).reduce(0, Integer::sum));
 
-        public Vertex find(Vertex vertex) {
-            if (parent.get(vertex) != vertex) {
-                parent.put(vertex, find(parent.get(vertex))); // 递归路径压缩
-            }
-            return parent.get(vertex);
-        }
+        System.out.println("----------------------------------------");
 
-        public boolean isConnected(Vertex x, Vertex y) {
-            return find(x) == find(y);
+        // Boruvka算法求最小生成树
+        System.out.println("Boruvka算法: ");
+        edges = boruvkaMST(graph);
+        System.out.println("Total weight: " + edges.stream().map(item -> item.getWeight()).reduce(0, Integer::sum));
+        for(Edge edge:edges){
+            System.out.println(edge.getFrom().getName() + "->" + edge.getTo().getName() + ":" + edge.getWeight());
         }
 
-        public void union(Vertex x, Vertex y) {
-            Vertex rootX = find(x);
-            Vertex rootY = find(y);
+        System.out.println("----------------------------------------");
 
-            if (rootX == rootY) return;
+        // 非连通图: 加入两个孤立顶点及一条边, 得到最小生成森林
+        Vertex v8 = new Vertex("v8",vertexLabel);
+        Vertex v9 = new Vertex("v9",vertexLabel);
+        graph.addVertex(v8);
+        graph.addVertex(v9);
+        graph.addEdge(v8,v9,3,edgeLabel);
+        System.out.println("最小生成森林: ");
+        System.out.println("Prim    Total weight: " + primMST(graph).stream().map(item -> item.getWeight()).reduce(0, Integer::sum));
+        System.out.println("Kruskal Total weight: " + kruskalMST(graph).stream().map(item -> item.getWeight()).reduce(0, Integer::sum));
+        System.out.println("Boruvka Total weight: " + boruvkaMST(graph).stream().map(item -> item.getWeight()).reduce(0, Integer::sum));
 
-            // 按秩合并
-            if (rank.get(rootX) > rank.get(rootY)) {
-                parent.put(rootY, rootX);
-            } else if (rank.get(rootX) < rank.get(rootY)) {
-                parent.put(rootX, rootY);
-            } else {
-                parent.put(rootY, rootX);
-                rank.put(rootX, rank.get(rootX) + 1);
-            }
-        }
     }
 
+
 }
\ No newline at end of file
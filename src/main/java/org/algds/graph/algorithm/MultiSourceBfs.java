@@ -0,0 +1,187 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.algds.graph.algorithm.ShortestPath.INF;
+
+/**
+ * 多源位并行BFS(MS-BFS): 同时计算多个源点的单源无权最短路径
+ *  每个顶点为每个源点保存一位, 64个源点占一个long; 一批 64 x W 个源点的状态为每个顶点W个long
+ *   seen[v]  已到达v的源点集合
+ *   visit[v] 当前层到达v的源点集合
+ *   next[v]  下一层可能到达v的源点集合
+ *  每层扫描一次边: next[u] |= visit[v], 再以 next[u] & ~seen[u] 得到第一次到达u的源点
+ *  一次边扫描同时推进一批中全部源点, 与逐个调用ShortestPath.unweighted相比边的扫描次数降为 1 / (64 x W)
+ *
+ * 源点数超过一批时分批执行; 结果以回调逐个输出, 或汇总为距离矩阵
+ */
+public class MultiSourceBfs {
+
+    // 一批最多的long个数, 即一批最多 64 x MAX_WORDS 个源点
+    public static final int MAX_WORDS = 4;
+
+    /**
+     * 顶点第一次被某个源点到达时回调, 每个(源点, 可达顶点)恰好回调一次, 同一源点的distance非递减
+     */
+    public interface Visitor {
+        /**
+         * @param source   源点在sources数组中的位置
+         * @param vertex   顶点稠密下标
+         * @param distance 源点到顶点的边数
+         */
+        void visit(int source, int vertex, int distance);
+    }
+
+    /**
+     * 从全部源点出发执行BFS, 按批回调
+     *
+     * @param csr     CSR快照
+     * @param sources 源点稠密下标, 可以重复
+     */
+    public static void bfs(CsrGraph csr, int[] sources, Visitor visitor) {
+        int n = csr.getVertexNum();
+        int batch = 64 * MAX_WORDS;
+        int maxWords = (Math.min(sources.length, batch) + 63) >>> 6;
+        long[] seen = new long[n * maxWords];
+        long[] visit = new long[n * maxWords];
+        long[] next = new long[n * maxWords];
+
+        for (int offset = 0; offset < sources.length; offset += batch) {
+            int count = Math.min(batch, sources.length - offset);
+            int words = (count + 63) >>> 6;
+            Arrays.fill(seen, 0);
+            Arrays.fill(visit, 0);
+            Arrays.fill(next, 0);
+
+            for (int i = 0; i < count; i++) {
+                int s = sources[offset + i] * words + (i >>> 6);
+                seen[s] |= 1L << i;
+                visit[s] |= 1L << i;
+                visitor.visit(offset + i, sources[offset + i], 0);
+            }
+
+            for (int level = 1; ; level++) {
+                // 1 当前层沿出边扩散, 处理后清空visit, 交换后作为下一层的next
+                for (int v = 0; v < n; v++) {
+                    int base = v * words;
+                    long any = 0;
+                    for (int w = 0; w < words; w++) any |= visit[base + w];
+                    if (any == 0) continue;
+
+                    for (int e = csr.edgeBegin(v), end = csr.edgeEnd(v); e < end; e++) {
+                        int target = csr.target(e) * words;
+                        for (int w = 0; w < words; w++) next[target + w] |= visit[base + w];
+                    }
+                    for (int w = 0; w < words; w++) visit[base + w] = 0;
+                }
+
+                // 2 去掉已到达过的源点, 剩下的即为本层第一次到达
+                boolean advanced = false;
+                for (int u = 0; u < n; u++) {
+                    int base = u * words;
+                    for (int w = 0; w < words; w++) {
+                        long bits = next[base + w] & ~seen[base + w];
+                        next[base + w] = bits;
+                        if (bits == 0) continue;
+                        seen[base + w] |= bits;
+                        advanced = true;
+                        for (; bits != 0; bits &= bits - 1) {
+                            visitor.visit(offset + (w << 6) + Long.numberOfTrailingZeros(bits), u, level);
+                        }
+                    }
+                }
+                if (!advanced) break;
+
+                long[] tmp = visit;
+                visit = next;
+                next = tmp;
+            }
+        }
+    }
+
+    /**
+     * 距离矩阵: dist[i][v] 为 sources[i] 到顶点v的边数, 不可达为INF
+     */
+    public static int[][] distances(CsrGraph csr, int[] sources) {
+        int[][] dist = new int[sources.length][csr.getVertexNum()];
+        for (int[] row : dist) {
+            Arrays.fill(row, INF);
+        }
+        bfs(csr, sources, (source, vertex, distance) -> dist[source][vertex] = distance);
+        return dist;
+    }
+
+
+    /**
+     * 随机图上与逐个调用ShortestPath.unweighted对比结果与耗时, 并以回调计算接近中心性
+     */
+    public static void main(String[] args) {
+        int n = 200_000, degree = 8, count = 256;
+        Random random = new Random(42);
+        Graph graph = new Graph();
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+        Vertex[] vertices = new Vertex[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            graph.addVertex(vertices[i]);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < degree; d++) {
+                graph.addEdge(edgeId++, vertices[i], vertices[random.nextInt(n)], 1, edgeLabel);
+            }
+        }
+        CsrGraph csr = CsrGraph.of(graph);
+
+        int[] sources = new int[count];
+        for (int i = 0; i < count; i++) {
+            sources[i] = random.nextInt(n);
+        }
+
+        // 回调: 接近中心性 = (可达顶点数 - 1) / 距离和
+        long[] sum = new long[count];
+        int[] reached = new int[count];
+        Visitor closeness = (source, vertex, distance) -> {
+            sum[source] += distance;
+            reached[source]++;
+        };
+        bfs(csr, Arrays.copyOf(sources, 64), closeness); // 预热
+        Arrays.fill(sum, 0);
+        Arrays.fill(reached, 0);
+
+        long start = System.nanoTime();
+        bfs(csr, sources, closeness);
+        long msBfs = (System.nanoTime() - start) / 1_000_000;
+
+        int[] expected = new int[n], pred = new int[n];
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            ShortestPath.unweighted(csr, sources[i], expected, pred);
+        }
+        long loop = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(String.format("顶点数量 %s, 边的数量 %s, 源点 %s 个: MS-BFS %s ms, 逐个unweighted %s ms",
+                n, csr.getEdgeNum(), count, msBfs, loop));
+        for (int i = 0; i < 5; i++) {
+            System.out.println(String.format("  %s 可达 %s 个顶点, 接近中心性 %.4f",
+                    csr.vertexOf(sources[i]).getName(), reached[i], sum[i] == 0 ? 0 : (reached[i] - 1) / (double) sum[i]));
+        }
+
+        // 距离矩阵与unweighted逐行比对, 源点数不是64的整数倍以覆盖不满的批
+        int[] some = Arrays.copyOf(sources, 100);
+        int[][] dist = distances(csr, some);
+        int errors = 0;
+        for (int i = 0; i < some.length; i++) {
+            ShortestPath.unweighted(csr, some[i], expected, pred);
+            if (!Arrays.equals(expected, dist[i])) errors++;
+        }
+        System.out.println(String.format("距离矩阵 %s 行: 错误%s个", some.length, errors));
+    }
+
+}
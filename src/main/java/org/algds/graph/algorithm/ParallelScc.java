@@ -0,0 +1,447 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 并行求解有向图强连通分量 (Forward-Backward + Trim)
+ *  1 Trim: 并行剔除在剩余子图中入度或出度为0的顶点, 每个被剔除的顶点单独构成一个强连通分量, 重复若干轮
+ *  2 FW-BW: 在一个顶点集合(同一颜色)中选取枢轴, 分别求前向可达集F和后向可达集B, F∩B即为枢轴所在强连通分量
+ *          其余顶点划分为 F\B、B\F、剩余 三个互不连通(不存在跨集合的强连通分量)的子问题, 作为独立任务并行递归
+ *  3 大集合上的可达性搜索按层并行扩展, 通过CAS修改颜色抢占顶点; 小集合或枢轴分量过小时退化为顺序Tarjan
+ *
+ * 结果结构与KosarajuScc.kosaraju一致, 调用方可以直接切换
+ */
+public class ParallelScc {
+
+    private static final int GRAIN = 4096;               // 单个并行任务处理的最小顶点数
+    private static final int SEQUENTIAL_THRESHOLD = 16384; // 顶点数不超过该值的子问题使用顺序Tarjan
+    private static final int SMALL_PIVOT_RATIO = 16;      // 枢轴分量小于子问题的1/16时, 其子问题改用顺序Tarjan
+    private static final int TRIMMED = -1;                // 已确定分量的顶点颜色
+
+    /**
+     * 并行求强连通分量, 结果与KosarajuScc.kosaraju结构一致
+     *
+     * @param graph   有向图
+     * @param threads 并行线程数
+     */
+    public static KosarajuScc.Result scc(Graph graph, int threads) {
+        CsrGraph csr = CsrGraph.of(graph);
+        int[] componentOf = new int[csr.getVertexNum()];
+        int count = scc(csr, componentOf, threads);
+        return KosarajuScc.Result.of(csr, componentOf, count);
+    }
+
+    /**
+     * 并行求强连通分量 (CSR快照版本), 内部创建并关闭指定并行度的ForkJoinPool
+     *
+     * @param csr         CSR快照
+     * @param componentOf 输出: 顶点下标 -> 强连通分量编号(从0开始, 按分量中最小顶点下标排序)
+     * @param threads     并行线程数
+     * @return 强连通分量个数
+     */
+    public static int scc(CsrGraph csr, int[] componentOf, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return scc(csr, componentOf, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 并行求强连通分量 (CSR快照版本)
+     *
+     * @param csr         CSR快照
+     * @param componentOf 输出: 顶点下标 -> 强连通分量编号(从0开始, 按分量中最小顶点下标排序)
+     * @param pool        执行并行任务的线程池
+     * @return 强连通分量个数
+     */
+    public static int scc(CsrGraph csr, int[] componentOf, ForkJoinPool pool) {
+        int n = csr.getVertexNum();
+        Engine engine = new Engine(csr, componentOf);
+
+        // 1 并行Trim, 剔除数量不足剩余顶点1%时停止
+        int remaining = n;
+        while (remaining > 0) {
+            int trimmed = pool.invoke(new TrimTask(engine, 0, n));
+            remaining -= trimmed;
+            if (trimmed == 0 || trimmed < remaining / 100) break;
+        }
+
+        // 2 剩余顶点(颜色0)作为初始子问题执行FW-BW
+        int[] members = new int[remaining];
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            if (engine.color.get(v) == 0) members[size++] = v;
+        }
+        pool.invoke(new FwBwTask(engine, members, 0, false));
+
+        // 3 按分量中最小顶点下标重新编号, 使结果与执行顺序无关
+        int count = engine.nextComponent.get();
+        int[] remap = new int[count];
+        Arrays.fill(remap, -1);
+        int next = 0;
+        for (int v = 0; v < n; v++) {
+            int c = componentOf[v];
+            if (remap[c] == -1) remap[c] = next++;
+            componentOf[v] = remap[c];
+        }
+        return count;
+    }
+
+
+    // 一次求解的共享状态 ***********************************************************************************************
+    private static class Engine {
+        final CsrGraph csr;
+        final CsrGraph reverse;
+        final int[] componentOf;
+        final AtomicIntegerArray color;  // 顶点所属子问题颜色, TRIMMED表示已确定分量
+        final AtomicInteger nextColor = new AtomicInteger(1);
+        final AtomicInteger nextComponent = new AtomicInteger();
+
+        // 顺序Tarjan使用, 各子问题顶点集合互不相交, 因此可以共享
+        final int[] index;
+        final int[] low;
+        final int[] cursor;
+
+        Engine(CsrGraph csr, int[] componentOf) {
+            int n = csr.getVertexNum();
+            this.csr = csr;
+            this.reverse = csr.transpose();
+            this.componentOf = componentOf;
+            this.color = new AtomicIntegerArray(n);
+            this.index = new int[n];
+            this.low = new int[n];
+            this.cursor = new int[n];
+            Arrays.fill(componentOf, 0, n, -1);
+        }
+
+        /**
+         * 从pivot出发在图g上按层扩展, 颜色为fromA的顶点改为toA, 颜色为fromB的顶点改为toB
+         *  pivot需已被调用方着色, 返回到达的顶点数(不含pivot)
+         */
+        int reach(CsrGraph g, int pivot, int fromA, int toA, int fromB, int toB, int capacity) {
+            int[] frontier = new int[capacity];
+            int[] next = new int[capacity];
+            frontier[0] = pivot;
+            int frontierSize = 1;
+            int reached = 0;
+            while (frontierSize > 0) {
+                int nextSize;
+                if (frontierSize <= GRAIN) {
+                    nextSize = expand(g, frontier, 0, frontierSize, fromA, toA, fromB, toB, next, 0);
+                } else {
+                    AtomicInteger tail = new AtomicInteger();
+                    new ReachTask(this, g, frontier, 0, frontierSize, fromA, toA, fromB, toB, next, tail).invoke();
+                    nextSize = tail.get();
+                }
+                reached += nextSize;
+                int[] tmp = frontier;
+                frontier = next;
+                next = tmp;
+                frontierSize = nextSize;
+            }
+            return reached;
+        }
+
+        // 顺序扩展 frontier[lo, hi), 新顶点写入 out[offset..], 返回写入个数
+        int expand(CsrGraph g, int[] frontier, int lo, int hi, int fromA, int toA, int fromB, int toB, int[] out, int offset) {
+            int count = 0;
+            for (int i = lo; i < hi; i++) {
+                int u = frontier[i];
+                for (int e = g.edgeBegin(u), end = g.edgeEnd(u); e < end; e++) {
+                    int v = g.target(e);
+                    int c = color.get(v);
+                    if ((c == fromA && color.compareAndSet(v, fromA, toA))
+                            || (fromB >= 0 && c == fromB && color.compareAndSet(v, fromB, toB))) {
+                        out[offset + count++] = v;
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * 顺序Tarjan, 只在颜色为c的顶点之间进行, 逻辑同TarjanScc.tarjan
+         */
+        void tarjan(int[] members, int c) {
+            int[] callStack = new int[members.length];
+            int[] sccStack = new int[members.length];
+            for (int v : members) index[v] = -1;
+
+            int counter = 0;
+            int sccTop = 0;
+            for (int s : members) {
+                if (index[s] != -1) continue;
+
+                int top = 0;
+                index[s] = low[s] = counter++;
+                cursor[s] = csr.edgeBegin(s);
+                sccStack[sccTop++] = s;
+                callStack[top++] = s;
+                while (top > 0) {
+                    int u = callStack[top - 1];
+                    if (cursor[u] < csr.edgeEnd(u)) {
+                        int v = csr.target(cursor[u]++);
+                        if (color.get(v) != c) continue; // 不属于当前子问题
+                        if (index[v] == -1) {
+                            index[v] = low[v] = counter++;
+                            cursor[v] = csr.edgeBegin(v);
+                            sccStack[sccTop++] = v;
+                            callStack[top++] = v;
+                        } else if (componentOf[v] == -1) {
+                            low[u] = Math.min(low[u], index[v]);
+                        }
+                        continue;
+                    }
+
+                    top--;
+                    if (low[u] == index[u]) {
+                        int component = nextComponent.getAndIncrement();
+                        int w;
+                        do {
+                            w = sccStack[--sccTop];
+                            componentOf[w] = component;
+                        } while (w != u);
+                    }
+                    if (top > 0) {
+                        int parent = callStack[top - 1];
+                        low[parent] = Math.min(low[parent], low[u]);
+                    }
+                }
+            }
+        }
+    }
+
+
+    // Trim: 处理顶点区间 [lo, hi), 返回剔除顶点数 ************************************************************************
+    @SuppressWarnings("serial")
+    private static class TrimTask extends RecursiveTask<Integer> {
+        private final Engine s;
+        private final int lo, hi;
+
+        TrimTask(Engine s, int lo, int hi) {
+            this.s = s;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                TrimTask left = new TrimTask(s, lo, mid);
+                left.fork();
+                int right = new TrimTask(s, mid, hi).compute();
+                return left.join() + right;
+            }
+
+            int trimmed = 0;
+            for (int v = lo; v < hi; v++) {
+                if (s.color.get(v) != 0) continue;
+                if (!hasLiveNeighbor(s.csr, v) || !hasLiveNeighbor(s.reverse, v)) {
+                    s.color.set(v, TRIMMED);
+                    s.componentOf[v] = s.nextComponent.getAndIncrement();
+                    trimmed++;
+                }
+            }
+            return trimmed;
+        }
+
+        private boolean hasLiveNeighbor(CsrGraph g, int v) {
+            for (int e = g.edgeBegin(v), end = g.edgeEnd(v); e < end; e++) {
+                int u = g.target(e);
+                if (u != v && s.color.get(u) == 0) return true;
+            }
+            return false;
+        }
+    }
+
+
+    // 并行按层扩展: 处理 frontier[lo, hi) ******************************************************************************
+    @SuppressWarnings("serial")
+    private static class ReachTask extends RecursiveAction {
+        private final Engine s;
+        private final CsrGraph g;
+        private final int[] frontier;
+        private final int lo, hi;
+        private final int fromA, toA, fromB, toB;
+        private final int[] next;
+        private final AtomicInteger tail;
+
+        ReachTask(Engine s, CsrGraph g, int[] frontier, int lo, int hi, int fromA, int toA, int fromB, int toB,
+                  int[] next, AtomicInteger tail) {
+            this.s = s;
+            this.g = g;
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.fromA = fromA;
+            this.toA = toA;
+            this.fromB = fromB;
+            this.toB = toB;
+            this.next = next;
+            this.tail = tail;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ReachTask(s, g, frontier, lo, mid, fromA, toA, fromB, toB, next, tail),
+                        new ReachTask(s, g, frontier, mid, hi, fromA, toA, fromB, toB, next, tail));
+                return;
+            }
+
+            // 先写入本地缓冲, 再一次性预留下一层的连续区间
+            int[] local = new int[Math.min(next.length, 1024)];
+            int count = 0;
+            for (int i = lo; i < hi; i++) {
+                if (count + g.outDegree(frontier[i]) > local.length) {
+                    local = Arrays.copyOf(local, Math.max(local.length * 2, count + g.outDegree(frontier[i])));
+                }
+                count += s.expand(g, frontier, i, i + 1, fromA, toA, fromB, toB, local, count);
+            }
+            int pos = tail.getAndAdd(count);
+            System.arraycopy(local, 0, next, pos, count);
+        }
+    }
+
+
+    // FW-BW: 求解颜色为c的顶点集合 ************************************************************************************
+    @SuppressWarnings("serial")
+    private static class FwBwTask extends RecursiveAction {
+        private final Engine s;
+        private final int[] members;
+        private final int c;
+        private final boolean sequential;
+
+        FwBwTask(Engine s, int[] members, int c, boolean sequential) {
+            this.s = s;
+            this.members = members;
+            this.c = c;
+            this.sequential = sequential;
+        }
+
+        @Override
+        protected void compute() {
+            if (members.length == 0) return;
+            if (sequential || members.length <= SEQUENTIAL_THRESHOLD) {
+                s.tarjan(members, c);
+                return;
+            }
+
+            int fw = s.nextColor.getAndIncrement();
+            int bw = s.nextColor.getAndIncrement();
+            int pivotColor = s.nextColor.getAndIncrement();
+            int pivot = members[0];
+
+            // 1 前向可达: c -> fw
+            s.color.set(pivot, fw);
+            s.reach(s.csr, pivot, c, fw, -1, -1, members.length);
+
+            // 2 后向可达: c -> bw, fw -> pivotColor (同时前向、后向可达即为枢轴所在分量)
+            s.color.set(pivot, pivotColor);
+            s.reach(s.reverse, pivot, c, bw, fw, pivotColor, members.length);
+
+            // 3 按颜色划分子问题
+            int fwSize = 0, bwSize = 0, restSize = 0, sccSize = 0;
+            for (int v : members) {
+                int vc = s.color.get(v);
+                if (vc == fw) fwSize++;
+                else if (vc == bw) bwSize++;
+                else if (vc == c) restSize++;
+                else sccSize++;
+            }
+            int[] fwMembers = new int[fwSize];
+            int[] bwMembers = new int[bwSize];
+            int[] restMembers = new int[restSize];
+            int component = s.nextComponent.getAndIncrement();
+            fwSize = bwSize = restSize = 0;
+            for (int v : members) {
+                int vc = s.color.get(v);
+                if (vc == fw) fwMembers[fwSize++] = v;
+                else if (vc == bw) bwMembers[bwSize++] = v;
+                else if (vc == c) restMembers[restSize++] = v;
+                else {
+                    s.color.set(v, TRIMMED);
+                    s.componentOf[v] = component;
+                }
+            }
+
+            // 4 三个子问题互相独立, 并行递归; 枢轴分量过小说明FW-BW收效甚微, 子问题改用顺序Tarjan
+            boolean small = (long) sccSize * SMALL_PIVOT_RATIO < members.length;
+            invokeAll(new FwBwTask(s, fwMembers, fw, small),
+                    new FwBwTask(s, bwMembers, bw, small),
+                    new FwBwTask(s, restMembers, c, small));
+        }
+    }
+
+
+    /**
+     * 测试用例
+     * A -> B -> C -> D -> E
+     *     /|   /    /|    |
+     *      ||/       |   \|
+     *      F         G <- H
+     */
+    public static void main(String[] args) {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        // 构造顶点
+        Vertex A = new Vertex("A", vertexLabel);
+        Vertex B = new Vertex("B", vertexLabel);
+        Vertex C = new Vertex("C", vertexLabel);
+        Vertex D = new Vertex("D", vertexLabel);
+        Vertex E = new Vertex("E", vertexLabel);
+        Vertex F = new Vertex("F", vertexLabel);
+        Vertex G = new Vertex("G", vertexLabel);
+        Vertex H = new Vertex("H", vertexLabel);
+
+        graph.addVertex(A);
+        graph.addVertex(B);
+        graph.addVertex(C);
+        graph.addVertex(D);
+        graph.addVertex(E);
+        graph.addVertex(F);
+        graph.addVertex(G);
+        graph.addVertex(H);
+
+        // 构造边
+        graph.addEdge(A, B, 1, edgeLabel);
+        graph.addEdge(B, C, 1, edgeLabel);
+        graph.addEdge(C, D, 1, edgeLabel);
+        graph.addEdge(C, F, 1, edgeLabel);
+        graph.addEdge(D, E, 1, edgeLabel);
+        graph.addEdge(E, H, 1, edgeLabel);
+        graph.addEdge(F, B, 1, edgeLabel);
+        graph.addEdge(G, D, 1, edgeLabel);
+        graph.addEdge(H, G, 1, edgeLabel);
+
+        // 并行求有向图强连通分量
+        KosarajuScc.Result result = scc(graph, Runtime.getRuntime().availableProcessors());
+        System.out.println(String.format("本次执行并行强连通算法共识别%s个强连通分量: ", result.counter));
+        for (List<Vertex> scc : result.kosaraju) {
+            System.out.println(scc);
+        }
+        System.out.println(result.sccMap);
+    }
+
+}
@@ -0,0 +1,366 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+import org.algds.tree.ds.IndexedBinaryHeap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Stack;
+
+import static org.algds.graph.algorithm.ShortestPath.INF;
+
+/**
+ * 点到点最短路径查询
+ *  dijkstra会确定所有顶点的距离, 点到点查询只需要搜索到目标顶点为止:
+ *  1 双向Dijkstra: 从源点在原图上、从终点在反向图上交替扩展, 两侧堆顶距离之和不小于已知最短相遇距离时停止
+ *  2 A*: 以 g(v) + h(v) 为优先级扩展, h为可采纳(不高估)的启发函数, 终点出堆时停止
+ *
+ * 实例绑定一个CSR快照并复用全部查询数组, 每次查询只重置访问过的顶点, 适合大量查询; 实例非线程安全, 每个线程各持有一个
+ */
+public class PointToPointShortestPath {
+
+    /**
+     * A*启发函数: 估计顶点v到终点target的距离, 不得超过真实最短距离
+     */
+    public interface Heuristic {
+        int estimate(int v, int target);
+    }
+
+    private final CsrGraph csr;
+    private final CsrGraph reverse;
+
+    // 正向搜索状态, 下标为CSR稠密下标; stamp[v] == query 时 dist/pred 有效
+    private final int[] distF, predF, stampF;
+    // 反向搜索状态, succB[v] 为v到终点路径上的下一个顶点
+    private final int[] distB, succB, stampB;
+    private final IndexedBinaryHeap heapF, heapB;
+    private int query;
+
+    // 最近一次查询的结果
+    private int target = -1, meet = -1, distance = INF;
+    private boolean bidirectional;
+    private int settled; // 出堆顶点数
+
+    public PointToPointShortestPath(CsrGraph csr) {
+        int n = csr.getVertexNum();
+        this.csr = csr;
+        this.reverse = csr.transpose();
+        this.distF = new int[n];
+        this.predF = new int[n];
+        this.stampF = new int[n];
+        this.distB = new int[n];
+        this.succB = new int[n];
+        this.stampB = new int[n];
+        this.heapF = new IndexedBinaryHeap(n);
+        this.heapB = new IndexedBinaryHeap(n);
+    }
+
+    /**
+     * 双向Dijkstra 计算源点到终点的最短距离, 要求边权非负
+     *  每轮扩展堆顶距离较小的一侧, 松弛到对侧已访问的顶点时更新最短相遇距离mu
+     *  当 正向堆顶 + 反向堆顶 >= mu 时不存在更短的路径, 提前结束
+     *
+     * @return 最短距离, 不可达为INF
+     */
+    public int bidirectionalDijkstra(int source, int target) {
+        begin(source, target, true);
+        visitF(source, 0, -1);
+        visitB(target, 0, -1);
+        if (source == target) return finish(source, 0);
+
+        heapF.insert(source, 0);
+        heapB.insert(target, 0);
+
+        int mu = INF, meet = -1;
+        while (!heapF.isEmpty() && !heapB.isEmpty()) {
+            long topF = heapF.findMinKey(), topB = heapB.findMinKey();
+            if (topF + topB >= mu) break;
+
+            settled++;
+            if (topF <= topB) {
+                int u = heapF.deleteMin();
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    int v = csr.target(e);
+                    int newDist = distF[u] + csr.weight(e);
+                    if (stampF[v] != query || newDist < distF[v]) {
+                        visitF(v, newDist, u);
+                        heapF.insertOrDecrease(v, newDist);
+                    }
+                    if (stampB[v] == query && (long) distF[v] + distB[v] < mu) {
+                        mu = distF[v] + distB[v];
+                        meet = v;
+                    }
+                }
+            } else {
+                int u = heapB.deleteMin();
+                for (int e = reverse.edgeBegin(u), end = reverse.edgeEnd(u); e < end; e++) {
+                    int v = reverse.target(e);
+                    int newDist = distB[u] + reverse.weight(e);
+                    if (stampB[v] != query || newDist < distB[v]) {
+                        visitB(v, newDist, u);
+                        heapB.insertOrDecrease(v, newDist);
+                    }
+                    if (stampF[v] == query && (long) distF[v] + distB[v] < mu) {
+                        mu = distF[v] + distB[v];
+                        meet = v;
+                    }
+                }
+            }
+        }
+        return finish(meet, mu);
+    }
+
+    /**
+     * A* 计算源点到终点的最短距离, 要求边权非负且启发函数可采纳
+     *  启发函数一致(h(u) <= w(u,v) + h(v))时每个顶点至多出堆一次, 否则已出堆顶点可能被重新打开
+     *
+     * @return 最短距离, 不可达为INF
+     */
+    public int aStar(int source, int target, Heuristic heuristic) {
+        begin(source, target, false);
+
+        visitF(source, 0, -1);
+        heapF.insert(source, heuristic.estimate(source, target));
+        while (!heapF.isEmpty()) {
+            int u = heapF.deleteMin();
+            settled++;
+            if (u == target) return finish(target, distF[target]); // 终点出堆即为最短距离
+
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                int v = csr.target(e);
+                int newDist = distF[u] + csr.weight(e);
+                if (stampF[v] != query || newDist < distF[v]) {
+                    visitF(v, newDist, u);
+                    heapF.insertOrDecrease(v, (long) newDist + heuristic.estimate(v, target));
+                }
+            }
+        }
+        return finish(-1, INF);
+    }
+
+    /**
+     * 以顶点属性中的平面坐标计算直线距离作为启发函数
+     *  仅当每条边的权重不小于两端点直线距离时可采纳; 缺少坐标的顶点估计为0
+     *
+     * @param xKey 横坐标属性名, 属性值为Number
+     * @param yKey 纵坐标属性名, 属性值为Number
+     */
+    public static Heuristic euclidean(CsrGraph csr, String xKey, String yKey) {
+        int n = csr.getVertexNum();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        boolean[] known = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            Object px = csr.vertexOf(v).getProperty(xKey);
+            Object py = csr.vertexOf(v).getProperty(yKey);
+            if (px instanceof Number && py instanceof Number) {
+                x[v] = ((Number) px).doubleValue();
+                y[v] = ((Number) py).doubleValue();
+                known[v] = true;
+            }
+        }
+        return (v, target) -> known[v] && known[target]
+                ? (int) Math.hypot(x[v] - x[target], y[v] - y[target]) // 向下取整, 保持不高估
+                : 0;
+    }
+
+    // 最近一次查询结果 *************************************************************************************************
+
+    public int getDistance() {
+        return distance;
+    }
+
+    // 最近一次查询中出堆的顶点数, 衡量搜索空间
+    public int getSettledCount() {
+        return settled;
+    }
+
+    /**
+     * 最近一次查询的最短路径, 按源点到终点顺序排列的顶点下标, 不可达返回空数组
+     */
+    public int[] path() {
+        if (distance == INF) return new int[0];
+        int forward = 0, backward = 0; // 相遇点及之前的顶点数, 相遇点之后的顶点数
+        for (int v = meet; v != -1; v = predF[v]) forward++;
+        if (bidirectional) {
+            for (int v = meet; v != target; v = succB[v]) backward++;
+        }
+
+        int[] path = new int[forward + backward];
+        for (int v = meet, j = forward - 1; v != -1; v = predF[v]) path[j--] = v;
+        if (bidirectional) {
+            int i = forward;
+            for (int v = meet; v != target; ) {
+                v = succB[v];
+                path[i++] = v;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * 最近一次查询的结果, 结构与ShortestPath.dijkstra一致, 只包含最短路径上的顶点
+     *  ShortestPath.reconstructPath(result.get("preVertex"), 终点ID) 可直接还原路径
+     */
+    public Map<String, Map<Integer, Integer>> toResultMap() {
+        Map<Integer, Integer> processed = new HashMap<>();
+        Map<Integer, Integer> dist = new HashMap<>();
+        Map<Integer, Integer> preVertex = new HashMap<>();
+        int[] path = path();
+        int length = 0;
+        for (int i = 0; i < path.length; i++) {
+            int id = csr.idOf(path[i]);
+            if (i > 0) length += edgeWeight(path[i - 1], path[i]);
+            processed.put(id, 1);
+            dist.put(id, length);
+            preVertex.put(id, i == 0 ? null : csr.idOf(path[i - 1]));
+        }
+
+        Map<String, Map<Integer, Integer>> result = new HashMap<>();
+        result.put("processed", processed);
+        result.put("preVertex", preVertex);
+        result.put("dist", dist);
+        return result;
+    }
+
+    /**
+     * 双向Dijkstra 计算源点到终点的最短路径, 结果结构与ShortestPath.dijkstra一致, 只包含最短路径上的顶点
+     */
+    public static Map<String, Map<Integer, Integer>> bidirectionalDijkstra(Graph graph, Vertex start, Vertex end) {
+        CsrGraph csr = CsrGraph.of(graph);
+        PointToPointShortestPath search = new PointToPointShortestPath(csr);
+        search.bidirectionalDijkstra(csr.indexOf(start), csr.indexOf(end));
+        return search.toResultMap();
+    }
+
+    /**
+     * A* 计算源点到终点的最短路径, 以顶点属性"x"、"y"为坐标计算直线距离作为启发函数
+     */
+    public static Map<String, Map<Integer, Integer>> aStar(Graph graph, Vertex start, Vertex end) {
+        CsrGraph csr = CsrGraph.of(graph);
+        PointToPointShortestPath search = new PointToPointShortestPath(csr);
+        search.aStar(csr.indexOf(start), csr.indexOf(end), euclidean(csr, "x", "y"));
+        return search.toResultMap();
+    }
+
+
+    // 内部方法 *********************************************************************************************************
+
+    private void begin(int source, int target, boolean bidirectional) {
+        heapF.makeEmpty();
+        heapB.makeEmpty();
+        if (++query == 0) { // 版本号溢出时清空
+            Arrays.fill(stampF, 0);
+            Arrays.fill(stampB, 0);
+            query = 1;
+        }
+        this.target = target;
+        this.bidirectional = bidirectional;
+        this.settled = 0;
+    }
+
+    private int finish(int meet, int distance) {
+        this.meet = meet;
+        this.distance = meet == -1 ? INF : distance;
+        return this.distance;
+    }
+
+    private void visitF(int v, int dist, int pred) {
+        stampF[v] = query;
+        distF[v] = dist;
+        predF[v] = pred;
+    }
+
+    private void visitB(int v, int dist, int succ) {
+        stampB[v] = query;
+        distB[v] = dist;
+        succB[v] = succ;
+    }
+
+    // u -> v 的最小边权
+    private int edgeWeight(int u, int v) {
+        int weight = INF;
+        for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+            if (csr.target(e) == v) weight = Math.min(weight, csr.weight(e));
+        }
+        return weight;
+    }
+
+
+    /**
+     * 网格测试图: 顶点坐标存放在属性"x"、"y"中, 边权不小于两端点直线距离
+     */
+    public static void main(String[] args) {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        int rows = 200;
+        Random random = new Random(42);
+        Vertex[] vertices = new Vertex[rows * rows];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            vertices[i].setProperty("x", (i % rows) * 10);
+            vertices[i].setProperty("y", (i / rows) * 10);
+            graph.addVertex(vertices[i]);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < vertices.length; i++) {
+            if (i % rows + 1 < rows) {
+                graph.addEdge(edgeId++, vertices[i], vertices[i + 1], 10 + random.nextInt(10), edgeLabel);
+                graph.addEdge(edgeId++, vertices[i + 1], vertices[i], 10 + random.nextInt(10), edgeLabel);
+            }
+            if (i + rows < vertices.length) {
+                graph.addEdge(edgeId++, vertices[i], vertices[i + rows], 10 + random.nextInt(10), edgeLabel);
+                graph.addEdge(edgeId++, vertices[i + rows], vertices[i], 10 + random.nextInt(10), edgeLabel);
+            }
+        }
+
+        // 兼容Map结果与reconstructPath
+        Vertex start = vertices[0], end = vertices[rows * 3 + 5];
+        Map<String, Map<Integer, Integer>> result = bidirectionalDijkstra(graph, start, end);
+        Stack<Integer> path = ShortestPath.reconstructPath(result.get("preVertex"), end.getId());
+        System.out.print(String.format("双向Dijkstra %s -> %s 路长 %s: ", start.getName(), end.getName(), result.get("dist").get(end.getId())));
+        while (!path.isEmpty()) {
+            System.out.print(String.format("%s ->", graph.getVertexName(path.pop())));
+        }
+        System.out.println();
+
+        // 随机查询与dijkstra对比
+        CsrGraph csr = CsrGraph.of(graph);
+        int n = csr.getVertexNum();
+        PointToPointShortestPath search = new PointToPointShortestPath(csr);
+        Heuristic heuristic = euclidean(csr, "x", "y");
+        int[] dist = new int[n], pred = new int[n];
+        int queries = 200, errors = 0;
+        long full = 0, bidirectional = 0, aStar = 0;
+        for (int q = 0; q < queries; q++) {
+            int s = random.nextInt(n), t = random.nextInt(n);
+            ShortestPath.dijkstra(csr, s, dist, pred);
+            int d1 = search.bidirectionalDijkstra(s, t);
+            bidirectional += search.getSettledCount();
+            int[] p1 = search.path();
+            int d2 = search.aStar(s, t, heuristic);
+            aStar += search.getSettledCount();
+            int[] p2 = search.path();
+            for (int v = 0; v < n; v++) {
+                if (dist[v] <= dist[t]) full++;
+            }
+            if (d1 != dist[t] || d2 != dist[t] || p1[0] != s || p1[p1.length - 1] != t || p2[p2.length - 1] != t) {
+                errors++;
+            }
+        }
+        System.out.println(String.format("%s次随机查询: 错误%s个, 平均出堆顶点数 dijkstra(到终点为止) %s, 双向Dijkstra %s, A* %s",
+                queries, errors, full / queries, bidirectional / queries, aStar / queries));
+    }
+
+}
@@ -1,99 +1,248 @@
 package org.algds.graph.algorithm;
 
+import org.algds.graph.adjacency.CsrGraph;
 import org.algds.graph.adjacency.Graph;
-import org.algds.graph.adjacency.Edge;
 import org.algds.graph.adjacency.Label;
 import org.algds.graph.adjacency.Vertex;
+import org.algds.tree.ds.IndexedBinaryHeap;
+import org.algds.tree.ds.RadixHeap;
 
 import java.util.*;
 
 public class ShortestPath {
 
+    // 使用INF表示顶点不可达
+    public static final int INF = Integer.MAX_VALUE;
+
+    // 最大边权不超过该值时dijkstra使用Dial桶队列
+    public static final int DIAL_MAX_WEIGHT = 255;
+
     /**
      * 计算单源无权最短路径
+     *  在图的CSR快照上执行, 结果转换为按顶点ID组织的Map
      *
      */
     public static Map<String,Map<Integer,Integer>> unweighted(Graph graph, Vertex start) {
+        CsrGraph csr = CsrGraph.of(graph);
+        return unweighted(csr, csr.indexOf(start)).asMap();
+    }
 
-        Queue<Vertex> queue = new LinkedList<>();
+    /**
+     * Dijkstra(迪杰斯特拉) 算法 计算 单源赋权最短路径
+     *  在图的CSR快照上执行, 结果转换为按顶点ID组织的Map
+     *
+     */
+    public static Map<String,Map<Integer,Integer>> dijkstra(Graph graph, Vertex start) {
+        CsrGraph csr = CsrGraph.of(graph);
+        return dijkstra(csr, csr.indexOf(start)).asMap();
+    }
 
-        Map<Integer, Integer> processed = new HashMap<>(); // 保存处理过顶点
-        Map<Integer, Integer> dist = new HashMap<>();      // 保存距离
-        Map<Integer, Integer> preVertex = new HashMap<>(); // 保存前一个顶点ID
+    /**
+     * 计算单源无权最短路径 (CSR快照版本), 返回按稠密下标存放的结果
+     */
+    public static ShortestPathResult unweighted(CsrGraph csr, int source) {
+        int[] dist = new int[csr.getVertexNum()];
+        int[] pred = new int[csr.getVertexNum()];
+        unweighted(csr, source, dist, pred);
+        return new ShortestPathResult(csr, source, dist, pred);
+    }
 
-        dist.put(start.getId(),0);                         // 源点距离设为0
-        queue.add(start);                                  // 源点入队
-        preVertex.put(start.getId(),null);                 // 设置源点路径为null
+    /**
+     * 计算单源赋权最短路径 (CSR快照版本), 返回按稠密下标存放的结果
+     */
+    public static ShortestPathResult dijkstra(CsrGraph csr, int source) {
+        int[] dist = new int[csr.getVertexNum()];
+        int[] pred = new int[csr.getVertexNum()];
+        dijkstra(csr, source, dist, pred);
+        return new ShortestPathResult(csr, source, dist, pred);
+    }
 
-        while (!queue.isEmpty()) {
-            Vertex current = queue.poll();
-            processed.put(current.getId(),1);              // 列1 是否被处理过
-
-            // 遍历所有邻接顶点
-            for (Edge edge : current.getEdgeList()) {
-                Vertex neighbor = edge.getTo();
-                // 如果顶点未被访问过
-                if (!processed.containsKey(neighbor.getId())) {
-                    dist.put(neighbor.getId(),dist.getOrDefault(current.getId(),0)+1);    // 列2 更新距离
-                    preVertex.put(neighbor.getId(),current.getId());                                  // 列3 记录路径
-                    queue.add(neighbor);                                                              // 邻接点入队
-                }
-            }
+    /**
+     * 将CSR快照上的dist/pred数组转换为按顶点ID组织的结果, 结构与dijkstra(Graph, Vertex)一致
+     *
+     */
+    static Map<String,Map<Integer,Integer>> toResultMap(CsrGraph csr, int[] dist, int[] pred) {
+        Map<Integer, Integer> processed = new HashMap<>();        // 保存处理过顶点
+        Map<Integer, Integer> newDist = new HashMap<>();          // 保存距离
+        Map<Integer, Integer> preVertex = new HashMap<>();        // 保存前一个顶点ID
+        for (int i = 0; i < csr.getVertexNum(); i++) {
+            if (dist[i] == INF) continue; // 不可达顶点不输出
+            processed.put(csr.idOf(i), 1);
+            newDist.put(csr.idOf(i), dist[i]);
+            preVertex.put(csr.idOf(i), pred[i] == -1 ? null : csr.idOf(pred[i]));
         }
 
         Map<String,Map<Integer,Integer>> result = new HashMap<>();
         result.put("processed",processed);
-        result.put("dist",dist);
         result.put("preVertex",preVertex);
+        result.put("dist",newDist);
         return result;
     }
 
 
     /**
-     * Dijkstra(迪杰斯特拉) 算法 计算 单源赋权最短路径
+     * 计算单源无权最短路径 (CSR快照版本)
+     *  结果写入调用方提供的数组, 数组可以在多次查询之间复用
      *
+     * @param csr    CSR快照
+     * @param source 源点稠密下标
+     * @param dist   输出: 距离, 不可达为INF
+     * @param pred   输出: 前一个顶点下标, 源点及不可达顶点为-1
      */
-    public static Map<String,Map<Integer,Integer>> dijkstra(Graph graph, Vertex start) {
-
-        PriorityQueue<Dist> queue = new PriorityQueue<>(Comparator.comparingInt(item -> item.getDist()));
+    public static void unweighted(CsrGraph csr, int source, int[] dist, int[] pred) {
+        int n = csr.getVertexNum();
+        Arrays.fill(dist, 0, n, INF);
+        Arrays.fill(pred, 0, n, -1);
+
+        int[] queue = new int[n]; // 每个顶点最多入队一次,数组即可实现队列
+        int head = 0, tail = 0;
+        dist[source] = 0;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                int v = csr.target(e);
+                if (dist[v] == INF) {
+                    dist[v] = dist[u] + 1;
+                    pred[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
 
-        Map<Integer, Integer> processed = new HashMap<>();        // 保存处理过顶点
-        Map<Integer, Dist> dist = new HashMap<>();                // 保存距离,为了便于使用优先队列,这里定义了本地类Dist辅助算法实现
-        Map<Integer, Integer> preVertex = new HashMap<>();        // 保存前一个顶点ID
 
+    /**
+     * Dijkstra算法 计算单源赋权最短路径 (CSR快照版本)
+     *  按边权范围选择优先队列: 最大边权不超过DIAL_MAX_WEIGHT时使用Dial桶队列, 否则使用索引二叉堆
+     *  (大边权的网格路网上基数堆并不比二叉堆快, 需要时可直接调用radixHeapDijkstra)
+     *
+     * @param csr    CSR快照
+     * @param source 源点稠密下标
+     * @param dist   输出: 距离, 不可达为INF
+     * @param pred   输出: 前一个顶点下标, 源点及不可达顶点为-1
+     * @throws IllegalArgumentException 存在负权边, 此时应使用BellmanFord
+     */
+    public static void dijkstra(CsrGraph csr, int source, int[] dist, int[] pred) {
+        if (csr.getMinWeight() < 0) {
+            throw new IllegalArgumentException(String.format("存在负权边(最小边权%s), Dijkstra结果不正确, 请使用BellmanFord", csr.getMinWeight()));
+        }
+        if (csr.getMaxWeight() <= DIAL_MAX_WEIGHT) {
+            dial(csr, source, dist, pred);
+        } else {
+            binaryHeapDijkstra(csr, source, dist, pred);
+        }
+    }
 
-        dist.put(start.getId(),new Dist(start.getId(), 0));  // 源点距离设为0
-        queue.add(dist.get(start.getId()));                       // 源点入队
-        preVertex.put(start.getId(),null);                        // 设置源点路径为null
+    /**
+     * Dijkstra算法, 优先队列为按顶点下标索引的二叉堆, 发现更短路径时执行decreaseKey, 堆大小不超过顶点数
+     */
+    public static void binaryHeapDijkstra(CsrGraph csr, int source, int[] dist, int[] pred) {
+        int n = csr.getVertexNum();
+        Arrays.fill(dist, 0, n, INF);
+        Arrays.fill(pred, 0, n, -1);
 
+        IndexedBinaryHeap queue = new IndexedBinaryHeap(n);
+        dist[source] = 0;
+        queue.insert(source, 0);
 
         while (!queue.isEmpty()) {
-            Dist current = queue.poll();
-            processed.put(current.getId(), 1); // 标识作用
-
-            for (Edge edge : graph.getVertices().get(current.getId()).getEdgeList()) {
-                Vertex neighbor = edge.getTo();
-                if(!dist.containsKey(neighbor.getId())) dist.put(neighbor.getId(),new Dist(neighbor.getId(),Integer.MAX_VALUE));
-                Integer newDist = dist.getOrDefault(current.getId(),new Dist(current.getId(), Integer.MAX_VALUE)).getDist() + edge.getWeight();
+            int u = queue.deleteMin();
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                int v = csr.target(e);
+                int newDist = dist[u] + csr.weight(e);
+                if (newDist < dist[v]) { // 发现更短路径则更新
+                    dist[v] = newDist;
+                    pred[v] = u;
+                    queue.insertOrDecrease(v, newDist);
+                }
+            }
+        }
+    }
 
-                if (newDist < dist.get(neighbor.getId()).getDist()) { // 发现更短路径则更新
 
-                    dist.getOrDefault(neighbor.getId(),new Dist(neighbor.getId(), Integer.MAX_VALUE)).setDist(newDist);      // 更新距离
-                    preVertex.put(neighbor.getId(),current.getId());                                                         // 列2 前一个节点
-                    queue.add(dist.getOrDefault(neighbor.getId(),new Dist(neighbor.getId(), Integer.MAX_VALUE)));            // 邻接顶点变化过则下游节点都会跟着变化，因此加入优先队列
+    /**
+     * Dial算法: 以距离为下标的桶队列实现Dijkstra, 要求边权非负
+     *  未确定的顶点距离都在 [d, d + C] 内(d为当前距离, C为最大边权), 因此只需 C + 1 个桶循环使用
+     *  桶为按顶点下标串联的双向链表, 更新距离时把顶点移到新桶, 不产生重复元素
+     *  时间复杂度 O(E + V + D), D为最远可达顶点的距离, 适合边权为小整数的图
+     */
+    public static void dial(CsrGraph csr, int source, int[] dist, int[] pred) {
+        int n = csr.getVertexNum();
+        Arrays.fill(dist, 0, n, INF);
+        Arrays.fill(pred, 0, n, -1);
+
+        int width = csr.getMaxWeight() + 1;
+        int[] head = new int[width];  // 桶 -> 链表头顶点, -1表示空桶
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        Arrays.fill(head, -1);
+
+        dist[source] = 0;
+        head[0] = source;
+        next[source] = prev[source] = -1;
+        int queued = 1;
+
+        for (int d = 0, b = 0; queued > 0; d++, b = b + 1 == width ? 0 : b + 1) {
+            while (head[b] != -1) { // 距离为d的顶点, 处理过程中0权边可能继续加入当前桶
+                int u = head[b];
+                head[b] = next[u];
+                if (next[u] != -1) prev[next[u]] = -1;
+                queued--;
+
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    int v = csr.target(e);
+                    int newDist = d + csr.weight(e);
+                    if (newDist < dist[v]) { // 已确定的顶点距离不大于d, 不会进入此分支
+                        if (dist[v] == INF) {
+                            queued++;
+                        } else { // 从原来的桶中摘下
+                            if (prev[v] != -1) next[prev[v]] = next[v];
+                            else head[dist[v] % width] = next[v];
+                            if (next[v] != -1) prev[next[v]] = prev[v];
+                        }
+                        dist[v] = newDist;
+                        pred[v] = u;
+                        int nb = newDist % width;
+                        prev[v] = -1;
+                        next[v] = head[nb];
+                        if (head[nb] != -1) prev[head[nb]] = v;
+                        head[nb] = v;
+                    }
                 }
             }
         }
+    }
 
-        Map<String,Map<Integer,Integer>> result = new HashMap<>();
-        result.put("processed",processed);
-        result.put("preVertex",preVertex);
-        Map<Integer, Integer> newDist = new HashMap<>();
-        for(Map.Entry<Integer,Dist> item :dist.entrySet()){
-            newDist.put(item.getKey(),item.getValue().getDist());
+    /**
+     * Dijkstra算法, 优先队列为基数堆, 要求边权非负
+     *  基数堆不支持decreaseKey, 发现更短路径时重复插入, 出堆时跳过距离已过期的元素
+     */
+    public static void radixHeapDijkstra(CsrGraph csr, int source, int[] dist, int[] pred) {
+        int n = csr.getVertexNum();
+        Arrays.fill(dist, 0, n, INF);
+        Arrays.fill(pred, 0, n, -1);
+
+        RadixHeap queue = new RadixHeap();
+        dist[source] = 0;
+        queue.insert(0, source);
+
+        while (!queue.isEmpty()) {
+            int d = queue.findMinKey();
+            int u = queue.deleteMin();
+            if (d > dist[u]) continue; // 过期元素
+
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                int v = csr.target(e);
+                int newDist = d + csr.weight(e);
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                    queue.insert(newDist, v);
+                }
+            }
         }
-        result.put("dist",newDist);
-        return result;
     }
 
 
@@ -140,32 +289,6 @@ public class ShortestPath {
         }
     }
 
-    public static class Dist{
-        Integer id;
-        Integer dist;
-
-        public Dist(Integer id, Integer dist) {
-            this.id = id;
-            this.dist = dist;
-        }
-
-        public Integer getId() {
-            return id;
-        }
-
-        public void setId(Integer id) {
-            this.id = id;
-        }
-
-        public Integer getDist() {
-            return dist;
-        }
-
-        public void setDist(Integer dist) {
-            this.dist = dist;
-        }
-    }
-
     /**
      * 测试图例
      *         v1 ----> v2
@@ -238,5 +361,21 @@ public class ShortestPath {
         System.out.println("单源赋权最短路径算法: ");
         printResults(graph,dijkstra);
 
+        System.out.println("---------------------------------------------");
+
+        // CSR快照上执行赋权最短路径, 路径写入复用的数组
+        CsrGraph csr = CsrGraph.of(graph);
+        ShortestPathResult csrResult = dijkstra(csr, csr.indexOf(v1));
+        int[] path = new int[csr.getVertexNum()];
+        System.out.println("单源赋权最短路径算法(CSR): ");
+        for (int i = 0; i < csr.getVertexNum(); i++) {
+            System.out.print(String.format("  %s         %s      ", csr.vertexOf(i).getName(), csrResult.getDistance(i)));
+            int length = csrResult.reconstructPath(i, path);
+            for (int j = 0; j < length; j++) {
+                System.out.print(String.format("%s ->", csr.vertexOf(path[j]).getName()));
+            }
+            System.out.println();
+        }
+
     }
 }
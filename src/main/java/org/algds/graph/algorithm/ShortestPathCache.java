@@ -0,0 +1,289 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 单源最短路径结果缓存
+ *  键为 (图, 源点ID, 算法), 值为ShortestPathResult(两个int数组); 图按引用区分
+ *  条目记录计算时图的modCount, 读取时modCount已变化则视为过期并删除, 因此只能感知通过Graph.addVertex/addEdge/setEdgeWeight的修改
+ *  按访问顺序淘汰最久未使用的条目, 直到缓存的数组总字节数不超过上限
+ *
+ * 字节数只统计dist/pred数组; CSR快照不计入上限, 每个结果都引用计算时的快照
+ *  每个图保留一个快照, 交替查询多个图时不会互相挤掉快照; 快照保留到invalidate或clear
+ *  图被修改后重建快照时, 立即删除该图在旧快照上计算的全部条目, 因此每个图最多只有当前一个快照被缓存引用
+ * 缓存返回的结果被多个调用方共享, 调用方不应修改其中的数组; 结果的asMap缓存会额外占用内存, 大量使用时应避免
+ * 方法均为同步方法, 计算在锁外执行, 并发未命中同一个键时可能重复计算
+ */
+public class ShortestPathCache {
+
+    public enum Algorithm {
+        UNWEIGHTED, DIJKSTRA
+    }
+
+    private static final long ENTRY_OVERHEAD = 96; // 条目、键、结果对象与两个数组头的估计字节数
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    // 每个图当前的CSR快照, 图按引用区分
+    private final IdentityHashMap<Graph, Snapshot> snapshots = new IdentityHashMap<>();
+
+    // 统计
+    private long hits, misses, evictions, invalidations;
+
+    /**
+     * @param maxBytes 缓存的dist/pred数组总字节数上限
+     */
+    public ShortestPathCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public ShortestPathResult dijkstra(Graph graph, Vertex source) {
+        return get(graph, source, Algorithm.DIJKSTRA);
+    }
+
+    public ShortestPathResult unweighted(Graph graph, Vertex source) {
+        return get(graph, source, Algorithm.UNWEIGHTED);
+    }
+
+    /**
+     * 命中且未过期时直接返回, 否则在当前图上计算并放入缓存
+     */
+    public ShortestPathResult get(Graph graph, Vertex source, Algorithm algorithm) {
+        Key key = new Key(graph, source.getId(), algorithm);
+        CsrGraph csr;
+        int modCount;
+        synchronized (this) {
+            modCount = graph.getModCount();
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.modCount == modCount) {
+                    hits++;
+                    return entry.result;
+                }
+                remove(key, entry);
+                invalidations++;
+            }
+            misses++;
+            csr = snapshot(graph, modCount);
+        }
+
+        int index = csr.indexOf(source);
+        ShortestPathResult result = algorithm == Algorithm.DIJKSTRA
+                ? ShortestPath.dijkstra(csr, index)
+                : ShortestPath.unweighted(csr, index);
+
+        synchronized (this) {
+            if (graph.getModCount() == modCount) { // 计算期间图被修改则不缓存
+                Entry old = entries.remove(key);
+                if (old != null) bytes -= old.bytes;
+                Entry entry = new Entry(result, modCount, ENTRY_OVERHEAD + 8L * csr.getVertexNum());
+                if (entry.bytes <= maxBytes) {
+                    entries.put(key, entry);
+                    bytes += entry.bytes;
+                    evict();
+                }
+            }
+        }
+        return result;
+    }
+
+    private CsrGraph snapshot(Graph graph, int modCount) {
+        Snapshot snapshot = snapshots.get(graph);
+        if (snapshot == null || snapshot.modCount != modCount) {
+            removeEntries(graph, true, modCount); // 过期条目引用旧快照, 不能等到被查询或淘汰时才删除
+            snapshot = new Snapshot(CsrGraph.of(graph), modCount);
+            snapshots.put(graph, snapshot);
+        }
+        return snapshot.csr;
+    }
+
+    // 按访问顺序从最久未使用的条目开始淘汰
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Entry entry = it.next();
+            it.remove();
+            bytes -= entry.bytes;
+            evictions++;
+        }
+    }
+
+    // 删除图的条目, staleOnly时只删除modCount与当前不同的条目
+    private void removeEntries(Graph graph, boolean staleOnly, int modCount) {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (e.getKey().graph == graph && (!staleOnly || e.getValue().modCount != modCount)) {
+                bytes -= e.getValue().bytes;
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        bytes -= entry.bytes;
+    }
+
+    /**
+     * 删除某个图的全部条目与快照
+     */
+    public synchronized void invalidate(Graph graph) {
+        removeEntries(graph, false, 0);
+        snapshots.remove(graph);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+        snapshots.clear();
+    }
+
+
+    // 统计 *************************************************************************************************************
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // 因超出字节上限被淘汰的条目数
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    // 因图被修改而过期删除的条目数
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long total = hits + misses;
+        return String.format("条目 %s, 字节 %s/%s, 命中 %s, 未命中 %s, 命中率 %.2f, 淘汰 %s, 过期 %s",
+                entries.size(), bytes, maxBytes, hits, misses, total == 0 ? 0 : hits / (double) total, evictions, invalidations);
+    }
+
+
+    private static class Key {
+        final Graph graph;
+        final int source;
+        final Algorithm algorithm;
+
+        Key(Graph graph, int source, Algorithm algorithm) {
+            this.graph = graph;
+            this.source = source;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return graph == k.graph && source == k.source && algorithm == k.algorithm;
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(graph) * 31 + source) * 31 + algorithm.ordinal();
+        }
+    }
+
+    private static class Entry {
+        final ShortestPathResult result;
+        final int modCount;
+        final long bytes;
+
+        Entry(ShortestPathResult result, int modCount, long bytes) {
+            this.result = result;
+            this.modCount = modCount;
+            this.bytes = bytes;
+        }
+    }
+
+    private static class Snapshot {
+        final CsrGraph csr;
+        final int modCount;
+
+        Snapshot(CsrGraph csr, int modCount) {
+            this.csr = csr;
+            this.modCount = modCount;
+        }
+    }
+
+
+    /**
+     * 热点源点重复查询: 缓存只能容纳部分源点, 中途加边使全部条目过期
+     */
+    public static void main(String[] args) {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        int n = 100_000;
+        Random random = new Random(42);
+        Vertex[] vertices = new Vertex[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            graph.addVertex(vertices[i]);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < 4; d++) {
+                graph.addEdge(edgeId++, vertices[i], vertices[random.nextInt(n)], 1 + random.nextInt(100), edgeLabel);
+            }
+        }
+
+        // 每个结果约800KB, 上限约容纳12个源点; 源点按偏斜分布从20个中选取
+        ShortestPathCache cache = new ShortestPathCache(10L << 20);
+        int queries = 400, errors = 0;
+        long start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            if (q == queries / 2) {
+                graph.addEdge(edgeId++, vertices[0], vertices[1], 1, edgeLabel); // 图被修改, 之前的结果全部过期
+            }
+            int hot = (int) (20 * Math.pow(random.nextDouble(), 3));
+            ShortestPathResult result = cache.dijkstra(graph, vertices[hot]);
+            if (q % 50 == 0) {
+                Map<Integer, Integer> expected = ShortestPath.dijkstra(graph, vertices[hot]).get("dist");
+                for (Map.Entry<Integer, Integer> e : expected.entrySet()) {
+                    if (result.getDistance(graph.getVertex(e.getKey())) != e.getValue()) errors++;
+                }
+            }
+        }
+        System.out.println(String.format("%s次查询 %s ms, 错误%s个", queries, (System.nanoTime() - start) / 1_000_000, errors));
+        System.out.println(cache);
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Vertex;
+
+import java.util.Map;
+
+import static org.algds.graph.algorithm.ShortestPath.INF;
+
+/**
+ * 单源最短路径结果: 按CSR稠密下标存放的距离与前驱数组
+ *  dist[v] 源点到v的距离, 不可达为INF
+ *  pred[v] 最短路径上v的前一个顶点下标, 源点及不可达顶点为-1
+ *
+ * 不为每个顶点装箱, 也不创建散列表; 旧的 Map<String, Map<Integer, Integer>> 结构由asMap在首次调用时生成
+ */
+public class ShortestPathResult {
+
+    private final CsrGraph csr;
+    private final int source;
+    private final int[] dist;
+    private final int[] pred;
+    private Map<String, Map<Integer, Integer>> map; // asMap缓存
+
+    /**
+     * 包装已计算好的数组, 不复制; 数组之后不应再被修改
+     */
+    public ShortestPathResult(CsrGraph csr, int source, int[] dist, int[] pred) {
+        this.csr = csr;
+        this.source = source;
+        this.dist = dist;
+        this.pred = pred;
+    }
+
+    public CsrGraph getGraph() {
+        return csr;
+    }
+
+    // 源点稠密下标
+    public int getSource() {
+        return source;
+    }
+
+    public int getDistance(int index) {
+        return dist[index];
+    }
+
+    public int getDistance(Vertex vertex) {
+        return dist[csr.indexOf(vertex)];
+    }
+
+    public int getPred(int index) {
+        return pred[index];
+    }
+
+    public boolean isReachable(int index) {
+        return dist[index] != INF;
+    }
+
+    // 距离数组本身, 不复制
+    public int[] getDist() {
+        return dist;
+    }
+
+    // 前驱数组本身, 不复制
+    public int[] getPred() {
+        return pred;
+    }
+
+    /**
+     * 源点到target的路径顶点数, 不可达为0
+     */
+    public int pathLength(int target) {
+        if (dist[target] == INF) return 0;
+        int length = 1;
+        for (int v = pred[target]; v != -1; v = pred[v]) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * 把源点到target的路径按 源点 -> target 的顺序写入path, 返回顶点数, 不可达返回0
+     *  path可以在多次调用之间复用, 长度为顶点数时总是足够
+     */
+    public int reconstructPath(int target, int[] path) {
+        int length = pathLength(target);
+        if (length > path.length) {
+            throw new IllegalArgumentException(String.format("路径有%s个顶点, 数组长度%s不足", length, path.length));
+        }
+        int i = length;
+        for (int v = target; i > 0; v = pred[v]) {
+            path[--i] = v;
+        }
+        return length;
+    }
+
+    /**
+     * 兼容旧接口的结果结构 {"processed", "dist", "preVertex"}, 键为顶点ID, 只包含可达顶点
+     *  首次调用时生成并缓存
+     */
+    public Map<String, Map<Integer, Integer>> asMap() {
+        if (map == null) {
+            map = ShortestPath.toResultMap(csr, dist, pred);
+        }
+        return map;
+    }
+}
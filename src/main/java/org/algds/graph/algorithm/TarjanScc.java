@@ -0,0 +1,171 @@
+package org.algds.graph.algorithm;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tarjan算法求解有向图强连通分量
+ *  与Kosaraju相比只需一次DFS, 也不需要反向图
+ *  DFS使用显式调用栈 + 每个顶点的出边游标实现, 长链图上不会发生StackOverflowError
+ */
+public class TarjanScc {
+
+    /**
+     * tarjan算法求有向图强连通分量, 结果与KosarajuScc.kosaraju结构一致
+     *
+     */
+    public static KosarajuScc.Result tarjan(Graph graph) {
+        CsrGraph csr = CsrGraph.of(graph);
+        int[] componentOf = new int[csr.getVertexNum()];
+        int count = tarjan(csr, componentOf);
+        return KosarajuScc.Result.of(csr, componentOf, count);
+    }
+
+    /**
+     * tarjan算法求有向图强连通分量 (CSR快照版本)
+     *  index[v]: 顶点v的DFS访问序号
+     *  low[v]:   v经由DFS树边和至多一条回边能到达的、仍在分量栈中顶点的最小访问序号
+     *  low[v] == index[v] 时v为分量的根, 分量栈中v及其上方的顶点构成一个强连通分量
+     *
+     * 时间复杂度 O(V+E), 额外空间为5个长度为V的int数组
+     *
+     * @param csr         CSR快照
+     * @param componentOf 输出: 顶点下标 -> 强连通分量编号(从0开始, 按逆拓扑序编号)
+     * @return 强连通分量个数
+     */
+    public static int tarjan(CsrGraph csr, int[] componentOf) {
+        int n = csr.getVertexNum();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];    // 调用栈中顶点下一条待访问的出边
+        int[] callStack = new int[n]; // 显式DFS调用栈
+        int[] sccStack = new int[n];  // 分量栈
+        Arrays.fill(index, -1);
+        Arrays.fill(componentOf, 0, n, -1); // 已访问且componentOf为-1 即表示仍在分量栈中
+
+        int counter = 0;
+        int components = 0;
+        int sccTop = 0;
+        for (int s = 0; s < n; s++) {
+            if (index[s] != -1) {
+                continue;
+            }
+
+            int top = 0;
+            index[s] = low[s] = counter++;
+            cursor[s] = csr.edgeBegin(s);
+            sccStack[sccTop++] = s;
+            callStack[top++] = s;
+
+            while (top > 0) {
+                int u = callStack[top - 1];
+                if (cursor[u] < csr.edgeEnd(u)) {
+                    int v = csr.target(cursor[u]++);
+                    if (index[v] == -1) { // 树边: 模拟递归调用
+                        index[v] = low[v] = counter++;
+                        cursor[v] = csr.edgeBegin(v);
+                        sccStack[sccTop++] = v;
+                        callStack[top++] = v;
+                    } else if (componentOf[v] == -1) { // 回边/横叉边指向分量栈中的顶点
+                        low[u] = Math.min(low[u], index[v]);
+                    }
+                    continue;
+                }
+
+                // u的出边全部访问完毕: 模拟递归返回
+                top--;
+                if (low[u] == index[u]) {
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        componentOf[w] = components;
+                    } while (w != u);
+                    components++;
+                }
+                if (top > 0) {
+                    int parent = callStack[top - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+        return components;
+    }
+
+
+    /**
+     * 测试用例
+     * A -> B -> C -> D -> E
+     *     /|   /    /|    |
+     *      ||/       |   \|
+     *      F         G <- H
+     */
+    public static void main(String[] args) {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        // 构造顶点
+        Vertex A = new Vertex("A", vertexLabel);
+        Vertex B = new Vertex("B", vertexLabel);
+        Vertex C = new Vertex("C", vertexLabel);
+        Vertex D = new Vertex("D", vertexLabel);
+        Vertex E = new Vertex("E", vertexLabel);
+        Vertex F = new Vertex("F", vertexLabel);
+        Vertex G = new Vertex("G", vertexLabel);
+        Vertex H = new Vertex("H", vertexLabel);
+
+        graph.addVertex(A);
+        graph.addVertex(B);
+        graph.addVertex(C);
+        graph.addVertex(D);
+        graph.addVertex(E);
+        graph.addVertex(F);
+        graph.addVertex(G);
+        graph.addVertex(H);
+
+        // 构造边
+        graph.addEdge(A, B, 1, edgeLabel);
+        graph.addEdge(B, C, 1, edgeLabel);
+        graph.addEdge(C, D, 1, edgeLabel);
+        graph.addEdge(C, F, 1, edgeLabel);
+        graph.addEdge(D, E, 1, edgeLabel);
+        graph.addEdge(E, H, 1, edgeLabel);
+        graph.addEdge(F, B, 1, edgeLabel);
+        graph.addEdge(G, D, 1, edgeLabel);
+        graph.addEdge(H, G, 1, edgeLabel);
+
+        // 求有向图强连通分量
+        KosarajuScc.Result result = tarjan(graph);
+        System.out.println(String.format("本次执行Tarjan算法共识别%s个强连通分量: ", result.counter));
+        for (List<Vertex> scc : result.kosaraju) {
+            System.out.println(scc);
+        }
+        System.out.println(result.sccMap);
+
+        // 长链: 递归实现会栈溢出
+        int n = 2_000_000;
+        Graph chain = new Graph();
+        Vertex[] vertices = new Vertex[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            chain.addVertex(vertices[i]);
+        }
+        for (int i = 0; i + 1 < n; i++) {
+            chain.addEdge(i + 1, vertices[i], vertices[i + 1], 1, edgeLabel);
+        }
+        chain.addEdge(n, vertices[n - 1], vertices[0], 1, edgeLabel); // 首尾相连构成一个大环
+        CsrGraph csr = CsrGraph.of(chain);
+        int count = tarjan(csr, new int[n]);
+        System.out.println(String.format("长度为%s的环共识别%s个强连通分量", n, count));
+    }
+
+}
@@ -1,15 +1,22 @@
 package org.algds.graph.algorithm;
 
+import org.algds.graph.adjacency.CsrGraph;
 import org.algds.graph.adjacency.Graph;
 import org.algds.graph.adjacency.Edge;
 import org.algds.graph.adjacency.Label;
 import org.algds.graph.adjacency.Vertex;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 
 public class TopSort {
 
+    private static final int GRAIN = 2048; // 单个任务处理的最小顶点数
+
     /**
      * 广度优先搜索 卡恩算法
      * 时间复杂度 O(V+E)
@@ -23,7 +30,9 @@ public class TopSort {
         Map<Integer, Integer> indegree = new HashMap<>();
         for (Integer id : graph.getVertices().keySet()) {
             indegree.putIfAbsent(id, 0);
-            for (Edge edge : graph.getVertices().get(id).getEdgeList()) {
+            List<Edge> edges = graph.getVertices().get(id).getEdges();
+            for (int j = 0; j < edges.size(); j++) {
+                Edge edge = edges.get(j);
                 indegree.put(edge.getTo().getId(), indegree.getOrDefault(edge.getTo().getId(), 0) + 1);
             }
         }
@@ -44,8 +53,9 @@ public class TopSort {
             Vertex vertex = graph.getVertices().get(vertexId);
             result.add(vertex);
 
-            List<Edge> neighbors = vertex.getEdgeList();
-            for (Edge neighbor : neighbors) {
+            List<Edge> neighbors = vertex.getEdges();
+            for (int j = 0; j < neighbors.size(); j++) {
+                Edge neighbor = neighbors.get(j);
                 Vertex to = neighbor.getTo();
                 indegree.put(to.getId(), indegree.get(to.getId()) - 1);
                 if (indegree.get(to.getId()) == 0) {
@@ -63,6 +73,197 @@ public class TopSort {
     }
 
 
+    /**
+     * 卡恩算法 (CSR快照版本)
+     * 时间复杂度 O(V+E), 入度和队列均为int数组
+     *
+     * @param csr CSR快照
+     * @return 拓扑序列(稠密下标), 存在环返回null
+     */
+    public static int[] topSortKahn(CsrGraph csr) {
+        int n = csr.getVertexNum();
+
+        // 1. 计算每个节点的入度
+        int[] indegree = new int[n];
+        for (int e = 0; e < csr.getEdgeNum(); e++) {
+            indegree[csr.target(e)]++;
+        }
+
+        // 2. 所有入度为 0 的节点入队, 队列数组同时作为结果序列
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (indegree[v] == 0) {
+                order[tail++] = v;
+            }
+        }
+
+        // 3. 进行拓扑排序
+        while (head < tail) {
+            int u = order[head++];
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                if (--indegree[csr.target(e)] == 0) {
+                    order[tail++] = csr.target(e);
+                }
+            }
+        }
+
+        // 4. 如果排序结果数量 < 节点总数，说明有环
+        return tail == n ? order : null;
+    }
+
+
+    /**
+     * 层同步拓扑排序, 使用公共ForkJoinPool
+     *
+     * @return 每一波可以并发执行的顶点, 存在环返回null
+     */
+    public static List<List<Vertex>> topSortWaves(Graph graph) {
+        CsrGraph csr = CsrGraph.of(graph);
+        int[][] waves = topSortWaves(csr, ForkJoinPool.commonPool());
+        if (waves == null) return null;
+
+        List<List<Vertex>> result = new ArrayList<>(waves.length);
+        for (int[] wave : waves) {
+            List<Vertex> vertices = new ArrayList<>(wave.length);
+            for (int v : wave) {
+                vertices.add(csr.vertexOf(v));
+            }
+            result.add(vertices);
+        }
+        return result;
+    }
+
+    public static int[][] topSortWaves(CsrGraph csr) {
+        return topSortWaves(csr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 层同步拓扑排序 (CSR快照版本): 按波次返回可以并发执行的顶点
+     *  第0波为入度为0的顶点, 第k波为 所有前驱都在前k波中且不属于前k波 的顶点; 同一波内的顶点之间没有边, 可以同时交给线程池执行
+     *  1 并行计算入度: 按顶点区间拆分, 出边终点的入度以原子计数器累加
+     *  2 逐波推进: 当前波在ForkJoinPool上分块并行, 出边终点的入度原子减1, 减到0的顶点属于下一波
+     *    叶子任务先收集到本地数组, 再一次性预留结果数组中的连续区间
+     *  各波依次存放在同一个数组中, 拼接起来即为一个拓扑序列; 波次数等于最长路径上的顶点数
+     *  波内顶点按下标升序排列, 结果与线程调度无关
+     *
+     * @param csr  CSR快照
+     * @param pool 执行并行任务的线程池
+     * @return waves[k] 为第k波顶点的稠密下标, 存在环返回null
+     */
+    public static int[][] topSortWaves(CsrGraph csr, ForkJoinPool pool) {
+        int n = csr.getVertexNum();
+        Waves state = new Waves(csr);
+
+        // 1. 并行计算每个节点的入度
+        pool.invoke(new WaveTask(state, true, 0, n));
+
+        // 2. 所有入度为 0 的节点组成第0波
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (state.indegree.get(v) == 0) {
+                state.order[tail++] = v;
+            }
+        }
+        state.tail.set(tail);
+
+        // 3. 逐波推进, bounds[k] 为第k波在order中的起始位置
+        int[] bounds = new int[16];
+        int waves = 0, head = 0;
+        while (head < tail) {
+            if (waves + 1 == bounds.length) bounds = Arrays.copyOf(bounds, waves * 2);
+            bounds[waves++] = head;
+            if (tail - head <= GRAIN) { // 较小的波直接在调用线程中处理
+                state.release(head, tail);
+            } else {
+                pool.invoke(new WaveTask(state, false, head, tail));
+            }
+            Arrays.sort(state.order, head, tail);
+            head = tail;
+            tail = state.tail.get();
+        }
+        bounds[waves] = tail;
+
+        // 4. 如果排序结果数量 < 节点总数，说明有环
+        if (tail != n) return null;
+
+        int[][] result = new int[waves][];
+        for (int k = 0; k < waves; k++) {
+            result[k] = Arrays.copyOfRange(state.order, bounds[k], bounds[k + 1]);
+        }
+        return result;
+    }
+
+    // 一次层同步拓扑排序的共享状态
+    private static class Waves {
+        final CsrGraph csr;
+        final AtomicIntegerArray indegree;
+        final int[] order;                          // 各波依次存放
+        final AtomicInteger tail = new AtomicInteger(); // 下一波已写入order的末尾
+
+        Waves(CsrGraph csr) {
+            this.csr = csr;
+            this.indegree = new AtomicIntegerArray(csr.getVertexNum());
+            this.order = new int[csr.getVertexNum()];
+        }
+
+        // 顶点 [lo, hi) 的出边终点入度加1
+        void count(int lo, int hi) {
+            for (int u = lo; u < hi; u++) {
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    indegree.getAndIncrement(csr.target(e));
+                }
+            }
+        }
+
+        // 当前波 order[lo, hi) 的出边终点入度减1, 减到0的顶点写入下一波
+        void release(int lo, int hi) {
+            int[] found = new int[64];
+            int count = 0;
+            for (int i = lo; i < hi; i++) {
+                int u = order[i];
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    int v = csr.target(e);
+                    if (indegree.decrementAndGet(v) == 0) {
+                        if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                        found[count++] = v;
+                    }
+                }
+            }
+
+            // 一次性预留下一波的连续区间
+            int pos = tail.getAndAdd(count);
+            System.arraycopy(found, 0, order, pos, count);
+        }
+    }
+
+    // indegree 为true时计算顶点区间 [lo, hi) 的入度, 否则处理当前波 order[lo, hi)
+    @SuppressWarnings("serial")
+    private static class WaveTask extends RecursiveAction {
+        private final Waves s;
+        private final boolean indegree;
+        private final int lo, hi;
+
+        WaveTask(Waves s, boolean indegree, int lo, int hi) {
+            this.s = s;
+            this.indegree = indegree;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new WaveTask(s, indegree, lo, mid), new WaveTask(s, indegree, mid, hi));
+                return;
+            }
+            if (indegree) s.count(lo, hi);
+            else s.release(lo, hi);
+        }
+    }
+
+
     /**
      * 打印拓扑排序结果
      *
@@ -137,6 +338,16 @@ public class TopSort {
 
         graph.addEdge(v7, v6, 1, edgeLabel);
 
+        // 按波次拓扑排序: 同一波内的顶点可以并发执行
+        List<List<Vertex>> waves = topSortWaves(graph);
+        for (int k = 0; k < waves.size(); k++) {
+            StringBuilder line = new StringBuilder();
+            for (Vertex vertex : waves.get(k)) {
+                line.append(vertex.getName()).append(' ');
+            }
+            System.out.println(String.format("第%s波: %s", k, line));
+        }
+
         // 构造环
         graph.addEdge(v4,v2,1,edgeLabel);
 
@@ -144,5 +355,12 @@ public class TopSort {
         List<Vertex> vertices = topSortKahn(graph);
         printTopSort(vertices);
 
+        // CSR快照上执行卡恩算法
+        CsrGraph csr = CsrGraph.of(graph);
+        int[] order = topSortKahn(csr);
+        System.out.println(null == order ? "存在环." : Arrays.toString(order));
+        System.out.println(null == topSortWaves(csr) ? "存在环." : "无环");
+
     }
+
 }
\ No newline at end of file
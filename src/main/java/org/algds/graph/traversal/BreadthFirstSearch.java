@@ -26,7 +26,9 @@ public class BreadthFirstSearch {
                 while (!queue.isEmpty()) {
                     Vertex v = queue.poll();
                     bfs.add(v);
-                    for (Edge edge : v.getEdgeList()) {
+                    List<Edge> edges = v.getEdges();
+                    for (int j = 0; j < edges.size(); j++) {
+                        Edge edge = edges.get(j);
                         Vertex neighbor = edge.getTo();
                         if (!visited.contains(neighbor.getId())) {
                             visited.add(neighbor.getId());
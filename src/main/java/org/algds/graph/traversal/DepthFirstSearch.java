@@ -33,7 +33,9 @@ public class DepthFirstSearch {
         }
         visited.add(start.getId());
         dfs.add(start);
-        for (Edge edge : start.getEdgeList()) {
+        List<Edge> edges = start.getEdges();
+        for (int j = 0; j < edges.size(); j++) {
+            Edge edge = edges.get(j);
             Vertex neighbor = edge.getTo();
             if (!visited.contains(neighbor.getId())) {
                 dfs(neighbor, visited, dfs);
@@ -63,7 +65,7 @@ public class DepthFirstSearch {
                         visited.add(v.getId());
                         dfs.add(v);
                         // 倒序入栈以保持与递归顺序一致
-                        List<Edge> edges = v.getEdgeList();
+                        List<Edge> edges = v.getEdges();
                         for (int i = edges.size() - 1; i >= 0; i--) {
                             Vertex neighbor = edges.get(i).getTo();
                             if (!visited.contains(neighbor.getId())) {
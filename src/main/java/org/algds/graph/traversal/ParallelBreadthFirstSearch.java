@@ -0,0 +1,375 @@
+package org.algds.graph.traversal;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Edge;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+import org.algds.graph.algorithm.ShortestPath;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 并行层同步BFS (方向优化, Beamer)
+ *  1 按层推进, 每一层的边界(frontier)在ForkJoinPool上分块并行扩展, 已访问集合为位图
+ *  2 自顶向下: 扫描边界顶点的出边, 通过CAS位图抢占未访问顶点, 适合边界较小的层
+ *  3 自底向上: 扫描所有未访问顶点的入边, 只要有一个前驱位于边界即加入下一层, 适合边界很大的层
+ *  4 每层根据 边界出边数 与 未访问顶点入边数 的比例在两种方向之间切换
+ */
+public class ParallelBreadthFirstSearch {
+
+    private static final int ALPHA = 14;   // 边界出边数 > 未访问入边数/ALPHA 时切换为自底向上
+    private static final int BETA = 24;    // 边界顶点数 < 顶点数/BETA 且边界收缩时切换回自顶向下
+    private static final int GRAIN = 2048; // 单个任务处理的最小顶点数
+
+    /**
+     * 并行BFS, 使用公共ForkJoinPool
+     *
+     * @param csr    CSR快照
+     * @param source 源点稠密下标
+     * @return
+     */
+    public static Result bfs(CsrGraph csr, int source) {
+        return bfs(csr, source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行BFS
+     *
+     * @param csr    CSR快照
+     * @param source 源点稠密下标
+     * @param pool   执行并行任务的线程池
+     * @return 每个顶点的层号和BFS树父顶点
+     */
+    public static Result bfs(CsrGraph csr, int source, ForkJoinPool pool) {
+        int n = csr.getVertexNum();
+        int words = (n + 63) >>> 6;
+        CsrGraph reverse = csr.transpose();
+
+        Level state = new Level(csr, reverse, n, words);
+        state.level[source] = 0;
+        state.visited.set(source >>> 6, 1L << source);
+        state.frontier[0] = source;
+
+        int frontierSize = 1;
+        long frontierEdges = csr.outDegree(source);                     // 边界出边数
+        long unvisitedEdges = csr.getEdgeNum() - reverse.outDegree(source); // 未访问顶点入边数
+        boolean bottomUp = false;
+        int depth = 0;
+
+        while (frontierSize > 0) {
+            int lastFrontierSize = frontierSize;
+            state.depth = ++depth;
+            state.nextSize.set(0);
+            state.nextEdges.set(0);
+            state.nextInEdges.set(0);
+
+            // 1 选择本层扩展方向, 切换时转换边界表示
+            if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA) {
+                bottomUp = true;
+                Arrays.fill(state.frontierBits, 0L);
+                for (int i = 0; i < frontierSize; i++) {
+                    int u = state.frontier[i];
+                    state.frontierBits[u >>> 6] |= 1L << u;
+                }
+            }
+
+            // 2 并行扩展一层
+            if (bottomUp) {
+                pool.invoke(new BottomUpTask(state, 0, words));
+                long[] tmp = state.frontierBits;
+                state.frontierBits = state.nextBits;
+                state.nextBits = tmp;
+            } else {
+                state.frontierSize = frontierSize;
+                pool.invoke(new TopDownTask(state, 0, frontierSize));
+                int[] tmp = state.frontier;
+                state.frontier = state.next;
+                state.next = tmp;
+            }
+            frontierSize = state.nextSize.get();
+            frontierEdges = state.nextEdges.get();
+            unvisitedEdges -= state.nextInEdges.get();
+
+            // 3 边界收缩到足够小时切换回自顶向下, 位图转换为队列
+            if (bottomUp && frontierSize < n / BETA && frontierSize < lastFrontierSize) {
+                bottomUp = false;
+                int size = 0;
+                for (int w = 0; w < words; w++) {
+                    for (long bits = state.frontierBits[w]; bits != 0; bits &= bits - 1) {
+                        state.frontier[size++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    }
+                }
+            }
+        }
+
+        return new Result(state.level, state.parent, depth - 1);
+    }
+
+
+    /**
+     * BFS结果: 下标均为CSR稠密下标
+     */
+    public static class Result {
+        private final int[] level;  // 顶点所在层号, 源点为0, 不可达为-1
+        private final int[] parent; // BFS树中的父顶点, 源点及不可达顶点为-1
+        private final int depth;    // 最大层号
+
+        Result(int[] level, int[] parent, int depth) {
+            this.level = level;
+            this.parent = parent;
+            this.depth = depth;
+        }
+
+        public int[] getLevel() {
+            return level;
+        }
+
+        public int[] getParent() {
+            return parent;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+    }
+
+
+    // 一次BFS的共享状态 ************************************************************************************************
+    private static class Level {
+        final CsrGraph csr;
+        final CsrGraph reverse;
+        final int n;
+        final int[] level;
+        final int[] parent;
+        final AtomicLongArray visited;  // 已访问位图
+
+        int[] frontier;                 // 自顶向下: 当前层顶点队列
+        int[] next;                     // 自顶向下: 下一层顶点队列
+        int frontierSize;
+        long[] frontierBits;            // 自底向上: 当前层位图
+        long[] nextBits;                // 自底向上: 下一层位图
+        int depth;
+
+        final AtomicInteger nextSize = new AtomicInteger();
+        final AtomicLong nextEdges = new AtomicLong();    // 下一层出边数
+        final AtomicLong nextInEdges = new AtomicLong();  // 下一层入边数
+
+        Level(CsrGraph csr, CsrGraph reverse, int n, int words) {
+            this.csr = csr;
+            this.reverse = reverse;
+            this.n = n;
+            this.level = new int[n];
+            this.parent = new int[n];
+            Arrays.fill(level, -1);
+            Arrays.fill(parent, -1);
+            this.visited = new AtomicLongArray(words);
+            this.frontier = new int[n];
+            this.next = new int[n];
+            this.frontierBits = new long[words];
+            this.nextBits = new long[words];
+        }
+
+        // CAS抢占顶点, 成功返回true
+        boolean claim(int v) {
+            int w = v >>> 6;
+            long bit = 1L << v;
+            while (true) {
+                long old = visited.get(w);
+                if ((old & bit) != 0) return false;
+                if (visited.compareAndSet(w, old, old | bit)) return true;
+            }
+        }
+    }
+
+
+    // 自顶向下: 处理当前层队列 [lo, hi) ********************************************************************************
+    @SuppressWarnings("serial")
+    private static class TopDownTask extends RecursiveAction {
+        private final Level s;
+        private final int lo, hi;
+
+        TopDownTask(Level s, int lo, int hi) {
+            this.s = s;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new TopDownTask(s, lo, mid), new TopDownTask(s, mid, hi));
+                return;
+            }
+
+            CsrGraph csr = s.csr;
+            int[] found = new int[Math.min(s.n, 64)];
+            int count = 0;
+            long edges = 0, inEdges = 0;
+            for (int i = lo; i < hi; i++) {
+                int u = s.frontier[i];
+                for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                    int v = csr.target(e);
+                    if ((s.visited.get(v >>> 6) & (1L << v)) == 0 && s.claim(v)) {
+                        s.parent[v] = u;
+                        s.level[v] = s.depth;
+                        if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                        found[count++] = v;
+                        edges += csr.outDegree(v);
+                        inEdges += s.reverse.outDegree(v);
+                    }
+                }
+            }
+
+            // 一次性预留下一层队列的连续区间
+            int pos = s.nextSize.getAndAdd(count);
+            System.arraycopy(found, 0, s.next, pos, count);
+            s.nextEdges.addAndGet(edges);
+            s.nextInEdges.addAndGet(inEdges);
+        }
+    }
+
+
+    // 自底向上: 处理位图字 [lo, hi) 覆盖的顶点, 每个字只由一个任务写入 ***************************************************
+    @SuppressWarnings("serial")
+    private static class BottomUpTask extends RecursiveAction {
+        private final Level s;
+        private final int lo, hi;
+
+        BottomUpTask(Level s, int lo, int hi) {
+            this.s = s;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if ((hi - lo) << 6 > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BottomUpTask(s, lo, mid), new BottomUpTask(s, mid, hi));
+                return;
+            }
+
+            CsrGraph reverse = s.reverse;
+            long[] frontierBits = s.frontierBits;
+            int count = 0;
+            long edges = 0, inEdges = 0;
+            for (int w = lo; w < hi; w++) {
+                long visitedWord = s.visited.get(w);
+                long unvisited = ~visitedWord;
+                if (w == (s.n - 1) >>> 6 && (s.n & 63) != 0) {
+                    unvisited &= (1L << s.n) - 1; // 最后一个字去掉超出顶点数的位
+                }
+                long nextWord = 0;
+                for (; unvisited != 0; unvisited &= unvisited - 1) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                    for (int e = reverse.edgeBegin(v), end = reverse.edgeEnd(v); e < end; e++) {
+                        int u = reverse.target(e);
+                        if ((frontierBits[u >>> 6] & (1L << u)) != 0) { // 前驱位于当前层
+                            s.parent[v] = u;
+                            s.level[v] = s.depth;
+                            nextWord |= 1L << v;
+                            count++;
+                            edges += s.csr.outDegree(v);
+                            inEdges += reverse.outDegree(v);
+                            break;
+                        }
+                    }
+                }
+                s.nextBits[w] = nextWord;
+                if (nextWord != 0) {
+                    s.visited.set(w, visitedWord | nextWord);
+                }
+            }
+
+            s.nextSize.addAndGet(count);
+            s.nextEdges.addAndGet(edges);
+            s.nextInEdges.addAndGet(inEdges);
+        }
+    }
+
+
+    /**
+     * 主函数测试
+     *    A             F
+     *    / \          / \
+     *   B   C        /   \
+     *   |    \      G     H
+     *   D     E
+     */
+    public static void main(String[] args) {
+
+        // 构建图
+        Graph graph = new Graph();
+
+        // 创建标签
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        // 创建顶点
+        Vertex A = new Vertex("A", vertexLabel);
+        Vertex B = new Vertex("B", vertexLabel);
+        Vertex C = new Vertex("C", vertexLabel);
+        Vertex D = new Vertex("D", vertexLabel);
+        Vertex E = new Vertex("E", vertexLabel);
+        Vertex F = new Vertex("F", vertexLabel);
+        Vertex G = new Vertex("G", vertexLabel);
+        Vertex H = new Vertex("H", vertexLabel);
+        for (Vertex vertex : new Vertex[]{A, B, C, D, E, F, G, H}) {
+            graph.addVertex(vertex);
+        }
+
+        // 添加无向边（使用双向边模拟）
+        graph.addEdge(new Edge(A, B, 1, edgeLabel));
+        graph.addEdge(new Edge(B, A, 1, edgeLabel));
+        graph.addEdge(new Edge(A, C, 1, edgeLabel));
+        graph.addEdge(new Edge(C, A, 1, edgeLabel));
+        graph.addEdge(new Edge(B, D, 1, edgeLabel));
+        graph.addEdge(new Edge(D, B, 1, edgeLabel));
+        graph.addEdge(new Edge(C, E, 1, edgeLabel));
+        graph.addEdge(new Edge(E, C, 1, edgeLabel));
+        graph.addEdge(F, G, 1, edgeLabel);
+        graph.addEdge(F, H, 1, edgeLabel);
+
+        CsrGraph csr = CsrGraph.of(graph);
+        Result result = bfs(csr, csr.indexOf(A));
+        System.out.println(String.format("从A出发的并行BFS(共%s层)：", result.getDepth() + 1));
+        for (int i = 0; i < csr.getVertexNum(); i++) {
+            int parent = result.getParent()[i];
+            System.out.println(String.format("    %s 层号 %s 父顶点 %s", csr.vertexOf(i).getName(), result.getLevel()[i],
+                    parent == -1 ? "-" : csr.vertexOf(parent).getName()));
+        }
+
+        // 随机图上与单源无权最短路径比对层号
+        Graph random = new Graph();
+        int n = 200_000;
+        Vertex[] vertices = new Vertex[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            random.addVertex(vertices[i]);
+        }
+        Random rnd = new Random(7);
+        for (int i = 0; i < n * 8; i++) {
+            random.addEdge(i + 1, vertices[rnd.nextInt(n)], vertices[rnd.nextInt(n)], 1, edgeLabel);
+        }
+        csr = CsrGraph.of(random);
+        int[] dist = new int[n];
+        int[] pred = new int[n];
+        ShortestPath.unweighted(csr, 0, dist, pred);
+        result = bfs(csr, 0);
+        int mismatch = 0;
+        for (int i = 0; i < n; i++) {
+            int expected = dist[i] == ShortestPath.INF ? -1 : dist[i];
+            if (result.getLevel()[i] != expected) mismatch++;
+        }
+        System.out.println(String.format("随机图(%s顶点, %s边)层号不一致顶点数: %s", n, csr.getEdgeNum(), mismatch));
+    }
+
+}
@@ -0,0 +1,192 @@
+package org.algds.tree.ds;
+
+import java.util.Arrays;
+
+/**
+ * d叉堆
+ *      结构性：完全d叉树，每个结点最多d个儿子
+ *      堆序性：父节点小于任意子结点
+ *
+ *  与二叉堆相比树高降为 log_d(n)：上滤(insert)更快，下滤(deleteMin)每层要比较d个儿子
+ *  存储布局：根存放在索引 d-1，任意结点的d个儿子连续存放且起始索引为d的整数倍，
+ *          下滤时一组兄弟落在同一段连续内存中；d=2时布局与BinaryHeap完全一致(根在索引1)
+ *
+ * @param <T>
+ */
+public class DaryHeap<T extends Comparable<? super T>> {
+
+    // 1 d叉堆结构定义 **************************************************************************************************
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private final int d;      // 叉数
+    private final int shift;  // d为2的幂时等于log2(d)，父子索引计算改用移位；否则为-1
+    private final int root;   // 根所在索引 d-1
+    private int currentSize;
+    private T[] array;
+
+
+    public DaryHeap(int d) {
+        this(d, DEFAULT_CAPACITY);
+    }
+
+    public DaryHeap(int d, int capacity) {
+        if (d < 2)
+            throw new IllegalArgumentException("叉数必须不小于2");
+        this.d = d;
+        this.shift = Integer.bitCount(d) == 1 ? Integer.numberOfTrailingZeros(d) : -1;
+        this.root = d - 1;
+        currentSize = 0;
+        array = (T[]) new Comparable[root + capacity + 1];
+    }
+
+    public DaryHeap(int d, T[] items) {
+        this(d, items.length * 11 / 10); // 容量扩展10%
+        // 构建堆结构
+        currentSize = items.length;
+        System.arraycopy(items, 0, array, root, currentSize);
+        // 构建堆序
+        buildHeap();
+    }
+
+
+    // 2 核心方法 *******************************************************************************************************
+    // 父结点索引
+    private int parent(int pos) {
+        return (shift >= 0 ? pos >> shift : pos / d) + d - 2;
+    }
+
+    // 第一个儿子索引
+    private int firstChild(int pos) {
+        return shift >= 0 ? (pos - root + 1) << shift : d * (pos - root + 1);
+    }
+
+    // 插入新元素，上滤算法实现
+    public void insert(T x) {
+        if (root + currentSize == array.length)
+            enlargeArray(array.length * 2 + 1);
+
+        int hole = root + currentSize++;
+        for (; hole > root && x.compareTo(array[parent(hole)]) < 0; hole = parent(hole))
+            array[hole] = array[parent(hole)];
+        array[hole] = x;
+    }
+
+    // 删除最小值，下滤算法实现
+    public T deleteMin() {
+        if (isEmpty())
+            throw new RuntimeException();
+
+        T minItem = array[root];
+        int last = root + --currentSize;
+        array[root] = array[last]; // 删除第一个元素并且将最后一个元素移动到根位置
+        array[last] = null;
+        if (currentSize > 0)
+            percolateDown(root);
+
+        return minItem;
+    }
+
+    // 下滤算法
+    private void percolateDown(int hole) {
+        int end = root + currentSize; // 最后一个元素之后的索引
+        T tmp = array[hole];
+
+        for (int child = firstChild(hole); child < end; child = firstChild(hole)) {
+            // 在连续存放的一组兄弟中找最小儿子
+            int minChild = child;
+            T min = array[child];
+            int last = Math.min(child + d, end);
+            for (int i = child + 1; i < last; i++) {
+                if (array[i].compareTo(min) < 0) {
+                    minChild = i;
+                    min = array[i];
+                }
+            }
+            if (min.compareTo(tmp) < 0) { // 最小儿子与当前结点比对
+                array[hole] = min;
+                hole = minChild;
+            } else
+                break;
+        }
+        array[hole] = tmp;
+    }
+
+
+    // 3 其他方法 *******************************************************************************************************
+    // 数组扩容
+    private void enlargeArray(int newSize) {
+        array = Arrays.copyOf(array, newSize);
+    }
+
+    // 查找最小元素
+    public T findMin() {
+        if (isEmpty())
+            throw new RuntimeException();
+        return array[root];
+    }
+
+    // 构建d叉堆
+    private void buildHeap() {
+        // 从最后一个非叶子结点开始执行下滤，当执行到根则构建堆数组完成堆序排列
+        if (currentSize < 2)
+            return;
+        for (int i = parent(root + currentSize - 1); i >= root; i--)
+            percolateDown(i);
+    }
+
+    // 堆是否为空
+    public boolean isEmpty() {
+        return currentSize == 0;
+    }
+
+    // 使堆为空
+    public void makeEmpty() {
+        Arrays.fill(array, root, root + currentSize, null);
+        currentSize = 0;
+    }
+
+    public int getArity() {
+        return d;
+    }
+
+    // 测试用
+    public int getCurrentSize() {
+        return currentSize;
+    }
+
+    // 按层序第index个元素(从1开始)，与BinaryHeap.getIndex一致
+    public T getIndex(int index) {
+        if (index > currentSize) throw new RuntimeException();
+        return array[root + index - 1];
+    }
+
+
+    // 4 单元测试 *******************************************************************************************************
+    public static void main(String[] args) {
+        int numItems = 1000;
+        for (int d = 2; d <= 8; d *= 2) {
+            DaryHeap<Integer> h = new DaryHeap<>(d);
+            for (int i = 37 % numItems; i != 0; i = (i + 37) % numItems) {
+                h.insert(i);
+            }
+
+            int errors = 0;
+            for (int i = 1; i < numItems; i++) {
+                Integer data = h.deleteMin();
+                if (data != i) {
+                    errors++;
+                    System.out.println(String.format("d = %s; Index = %s; Data = %s.", d, i, data));
+                }
+            }
+
+            Integer[] items = {9, 4, 7, 1, 8, 2, 6, 3, 5};
+            DaryHeap<Integer> built = new DaryHeap<>(d, items);
+            System.out.print(String.format("%s叉堆: 错误%s个, buildHeap出堆顺序 ", d, errors));
+            while (!built.isEmpty()) {
+                System.out.print(built.deleteMin() + " ");
+            }
+            System.out.println();
+        }
+    }
+
+}
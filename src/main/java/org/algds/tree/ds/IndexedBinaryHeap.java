@@ -0,0 +1,181 @@
+package org.algds.tree.ds;
+
+/**
+ * 索引二叉堆(小顶堆)
+ *      元素为 [0, capacity) 范围内的稠密整数下标，每个下标关联一个long优先级
+ *      额外维护 下标 -> 堆位置 的反向索引，从而支持 O(log n) 的 decreaseKey
+ *
+ *  同一下标在堆中最多出现一次，堆大小不会超过容量；与BinaryHeap一样从索引1开始存放
+ */
+public class IndexedBinaryHeap {
+
+    // 1 索引堆结构定义 **************************************************************************************************
+    private int currentSize;
+    private int[] heap;      // 堆位置 -> 下标
+    private int[] position;  // 下标 -> 堆位置，0表示不在堆中
+    private long[] keys;     // 下标 -> 优先级
+
+
+    public IndexedBinaryHeap(int capacity) {
+        currentSize = 0;
+        heap = new int[capacity + 1];
+        position = new int[capacity];
+        keys = new long[capacity];
+    }
+
+
+    // 2 核心方法 *******************************************************************************************************
+    // 插入新下标，上滤算法实现
+    public void insert(int index, long key) {
+        if (contains(index))
+            throw new IllegalArgumentException(String.format("下标%s已在堆中", index));
+
+        keys[index] = key;
+        heap[++currentSize] = index;
+        position[index] = currentSize;
+        percolateUp(currentSize);
+    }
+
+    // 降低下标优先级，上滤算法实现
+    public void decreaseKey(int index, long key) {
+        if (!contains(index))
+            throw new IllegalArgumentException(String.format("下标%s不在堆中", index));
+        if (key > keys[index])
+            throw new IllegalArgumentException(String.format("下标%s新优先级%s大于当前优先级%s", index, key, keys[index]));
+
+        keys[index] = key;
+        percolateUp(position[index]);
+    }
+
+    // 不在堆中则插入，否则在新优先级更小时执行decreaseKey；返回堆是否发生变化
+    public boolean insertOrDecrease(int index, long key) {
+        if (!contains(index)) {
+            insert(index, key);
+            return true;
+        }
+        if (key < keys[index]) {
+            keys[index] = key;
+            percolateUp(position[index]);
+            return true;
+        }
+        return false;
+    }
+
+    // 删除最小值，返回其下标，下滤算法实现
+    public int deleteMin() {
+        if (isEmpty())
+            throw new RuntimeException();
+
+        int minIndex = heap[1];
+        position[minIndex] = 0;
+        int last = heap[currentSize--];
+        if (currentSize > 0) {
+            heap[1] = last; // 将最后一个元素移动到1位置
+            position[last] = 1;
+            percolateDown(1);
+        }
+        return minIndex;
+    }
+
+    // 上滤算法
+    private void percolateUp(int hole) {
+        int index = heap[hole];
+        long key = keys[index];
+
+        for (; hole > 1 && key < keys[heap[hole / 2]]; hole /= 2) {
+            heap[hole] = heap[hole / 2];
+            position[heap[hole]] = hole;
+        }
+        heap[hole] = index;
+        position[index] = hole;
+    }
+
+    // 下滤算法
+    private void percolateDown(int hole) {
+        int child;
+        int index = heap[hole];
+        long key = keys[index];
+
+        for (; hole * 2 <= currentSize; hole = child) {
+            child = hole * 2;
+            if (child != currentSize && keys[heap[child + 1]] < keys[heap[child]]) // 存在两个儿子，取最小儿子
+                child++;
+            if (keys[heap[child]] < key) {
+                heap[hole] = heap[child];
+                position[heap[hole]] = hole;
+            } else
+                break;
+        }
+        heap[hole] = index;
+        position[index] = hole;
+    }
+
+
+    // 3 其他方法 *******************************************************************************************************
+    // 查找最小元素下标
+    public int findMin() {
+        if (isEmpty())
+            throw new RuntimeException();
+        return heap[1];
+    }
+
+    // 查找最小优先级
+    public long findMinKey() {
+        if (isEmpty())
+            throw new RuntimeException();
+        return keys[heap[1]];
+    }
+
+    // 下标当前优先级，仅在下标位于堆中时有意义
+    public long getKey(int index) {
+        return keys[index];
+    }
+
+    public boolean contains(int index) {
+        return position[index] != 0;
+    }
+
+    // 堆是否为空
+    public boolean isEmpty() {
+        return currentSize == 0;
+    }
+
+    // 使堆为空，只清理堆中下标的反向索引，可复用于下一次查询
+    public void makeEmpty() {
+        for (int i = 1; i <= currentSize; i++)
+            position[heap[i]] = 0;
+        currentSize = 0;
+    }
+
+    public int getCurrentSize() {
+        return currentSize;
+    }
+
+    public int getCapacity() {
+        return position.length;
+    }
+
+
+    // 4 单元测试 *******************************************************************************************************
+    public static void main(String[] args) {
+        int numItems = 10;
+        IndexedBinaryHeap h = new IndexedBinaryHeap(numItems);
+
+        // 以 (i*37)%10 的乱序插入，优先级为下标的10倍
+        for (int i = 1; i < numItems; i++) {
+            int index = i * 37 % numItems;
+            h.insert(index, index * 10L);
+        }
+
+        // 将下标9的优先级降到最小
+        h.decreaseKey(9, -1);
+        System.out.println(String.format("最小下标 = %s; 优先级 = %s.", h.findMin(), h.findMinKey()));
+
+        System.out.print("出堆顺序: ");
+        while (!h.isEmpty()) {
+            System.out.print(h.deleteMin() + " ");
+        }
+        System.out.println();
+    }
+
+}
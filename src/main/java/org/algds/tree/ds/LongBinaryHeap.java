@@ -0,0 +1,159 @@
+package org.algds.tree.ds;
+
+import java.util.Arrays;
+
+/**
+ * long二叉堆(小顶堆)
+ *      BinaryHeap的long特化版本，元素直接存放在long数组中，比较时不再发生装箱和compareTo虚调用
+ *      与BinaryHeap一样从索引1开始存放，插入、删除最小值、构建堆的语义一致
+ */
+public class LongBinaryHeap {
+
+    // 1 二叉堆结构定义 **************************************************************************************************
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int currentSize;
+    private long[] array;
+
+
+    public LongBinaryHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongBinaryHeap(int capacity) {
+        currentSize = 0;
+        array = new long[capacity + 1]; // 二叉堆从索引1开始，因此构建数组时需要加1
+    }
+
+    public LongBinaryHeap(long[] items) {
+        // 构建堆结构
+        currentSize = items.length;
+        array = new long[(currentSize + 2) * 11 / 10]; // +2 表示0位和最后一个空位提前预创建; *11/10 表示容量扩展10%
+        System.arraycopy(items, 0, array, 1, currentSize);
+        // 构建堆序
+        buildHeap();
+    }
+
+
+    // 2 核心方法 *******************************************************************************************************
+    // 插入新元素，上滤算法实现
+    public void insert(long x) {
+        if (currentSize == array.length - 1)
+            enlargeArray(array.length * 2 + 1);
+
+        int hole = ++currentSize;
+        for (array[0] = x; x < array[hole / 2]; hole /= 2)
+            array[hole] = array[hole / 2];
+        array[hole] = x;
+    }
+
+    // 批量插入：新增元素较多时整体重建堆序 O(n)，否则逐个上滤
+    public void insertAll(long[] items) {
+        insertAll(items, 0, items.length);
+    }
+
+    public void insertAll(long[] items, int from, int to) {
+        int count = to - from;
+        if (count > currentSize) {
+            if (currentSize + count > array.length - 1)
+                enlargeArray(currentSize + count + 1);
+            System.arraycopy(items, from, array, currentSize + 1, count);
+            currentSize += count;
+            buildHeap();
+        } else {
+            for (int i = from; i < to; i++)
+                insert(items[i]);
+        }
+    }
+
+    // 删除最小值，下滤算法实现
+    public long deleteMin() {
+        if (isEmpty())
+            throw new RuntimeException();
+
+        long minItem = array[1];
+        array[1] = array[currentSize--]; // 删除第一个元素并且将最后一个元素移动到1位置
+        percolateDown(1); // 从索引1开始执行下滤算法
+
+        return minItem;
+    }
+
+    // 按从小到大的顺序依次删除元素写入dst，直到堆为空或dst写满，返回写入个数
+    public int drainTo(long[] dst) {
+        int count = Math.min(currentSize, dst.length);
+        for (int i = 0; i < count; i++)
+            dst[i] = deleteMin();
+        return count;
+    }
+
+    // 下滤算法
+    private void percolateDown(int hole) {
+        int child;
+        long tmp = array[hole];
+
+        for (; hole * 2 <= currentSize; hole = child) {
+            child = hole * 2;
+            if (child != currentSize && array[child + 1] < array[child]) // 存在两个儿子，取最小儿子索引+1，否则不加1
+                child++;
+            if (array[child] < tmp) // 最小儿子与当前结点比对
+                array[hole] = array[child];
+            else
+                break;
+        }
+        array[hole] = tmp;
+    }
+
+
+    // 3 其他方法 *******************************************************************************************************
+    // 数组扩容
+    private void enlargeArray(int newSize) {
+        array = Arrays.copyOf(array, newSize);
+    }
+
+    // 查找最小元素
+    public long findMin() {
+        if (isEmpty())
+            throw new RuntimeException();
+        return array[1];
+    }
+
+    // 构建二叉堆
+    private void buildHeap() {
+        // 从最后一个非叶子结点开始执行下滤，当执行到根则构建二叉堆数组完成堆序排列
+        for (int i = currentSize / 2; i > 0; i--)
+            percolateDown(i);
+    }
+
+    // 堆是否为空
+    public boolean isEmpty() {
+        return currentSize == 0;
+    }
+
+    // 使堆为空
+    public void makeEmpty() {
+        currentSize = 0;
+    }
+
+    public int getCurrentSize() {
+        return currentSize;
+    }
+
+    public long getIndex(int index) {
+        if (index > currentSize) throw new RuntimeException();
+        return array[index];
+    }
+
+
+    // 4 单元测试 *******************************************************************************************************
+    public static void main(String[] args) {
+        long[] items = {5_000_000_000L, 3L, -9L, 1L, 7_000_000_000L, 3L};
+        LongBinaryHeap h = new LongBinaryHeap(items);
+        h.insert(Long.MIN_VALUE);
+        h.insertAll(new long[]{42L, 0L});
+
+        long[] sorted = new long[h.getCurrentSize()];
+        h.drainTo(sorted);
+        System.out.println(Arrays.toString(sorted));
+    }
+
+}
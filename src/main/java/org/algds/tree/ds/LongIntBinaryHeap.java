@@ -0,0 +1,189 @@
+package org.algds.tree.ds;
+
+import java.util.Arrays;
+
+/**
+ * long键/int值二叉堆(小顶堆)
+ *      按long键排序，每个键携带一个int负载，键和负载分别存放在两个平行数组中
+ *      常用于 (优先级, 任务/顶点下标) 这类成对数据，比较时只读取键数组
+ *      与BinaryHeap一样从索引1开始存放，插入、删除最小值、构建堆的语义一致
+ */
+public class LongIntBinaryHeap {
+
+    // 1 二叉堆结构定义 **************************************************************************************************
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int currentSize;
+    private long[] keys;
+    private int[] values;
+
+
+    public LongIntBinaryHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongIntBinaryHeap(int capacity) {
+        currentSize = 0;
+        keys = new long[capacity + 1]; // 二叉堆从索引1开始，因此构建数组时需要加1
+        values = new int[capacity + 1];
+    }
+
+    public LongIntBinaryHeap(long[] keys, int[] values) {
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("键与值数组长度不一致");
+
+        // 构建堆结构
+        currentSize = keys.length;
+        this.keys = new long[(currentSize + 2) * 11 / 10]; // +2 表示0位和最后一个空位提前预创建; *11/10 表示容量扩展10%
+        this.values = new int[this.keys.length];
+        System.arraycopy(keys, 0, this.keys, 1, currentSize);
+        System.arraycopy(values, 0, this.values, 1, currentSize);
+        // 构建堆序
+        buildHeap();
+    }
+
+
+    // 2 核心方法 *******************************************************************************************************
+    // 插入新元素，上滤算法实现
+    public void insert(long key, int value) {
+        if (currentSize == keys.length - 1)
+            enlargeArray(keys.length * 2 + 1);
+
+        int hole = ++currentSize;
+        for (; hole > 1 && key < keys[hole / 2]; hole /= 2) {
+            keys[hole] = keys[hole / 2];
+            values[hole] = values[hole / 2];
+        }
+        keys[hole] = key;
+        values[hole] = value;
+    }
+
+    // 批量插入：新增元素较多时整体重建堆序 O(n)，否则逐个上滤
+    public void insertAll(long[] keys, int[] values) {
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("键与值数组长度不一致");
+
+        int count = keys.length;
+        if (count > currentSize) {
+            if (currentSize + count > this.keys.length - 1)
+                enlargeArray(currentSize + count + 1);
+            System.arraycopy(keys, 0, this.keys, currentSize + 1, count);
+            System.arraycopy(values, 0, this.values, currentSize + 1, count);
+            currentSize += count;
+            buildHeap();
+        } else {
+            for (int i = 0; i < count; i++)
+                insert(keys[i], values[i]);
+        }
+    }
+
+    // 删除最小键，返回其负载，下滤算法实现
+    public int deleteMin() {
+        if (isEmpty())
+            throw new RuntimeException();
+
+        int minValue = values[1];
+        keys[1] = keys[currentSize]; // 删除第一个元素并且将最后一个元素移动到1位置
+        values[1] = values[currentSize--];
+        percolateDown(1); // 从索引1开始执行下滤算法
+
+        return minValue;
+    }
+
+    // 按键从小到大的顺序依次删除元素，将负载写入dst，直到堆为空或dst写满，返回写入个数
+    public int drainTo(int[] dst) {
+        int count = Math.min(currentSize, dst.length);
+        for (int i = 0; i < count; i++)
+            dst[i] = deleteMin();
+        return count;
+    }
+
+    // 同上，同时写出键
+    public int drainTo(long[] keyDst, int[] valueDst) {
+        int count = Math.min(currentSize, Math.min(keyDst.length, valueDst.length));
+        for (int i = 0; i < count; i++) {
+            keyDst[i] = keys[1];
+            valueDst[i] = deleteMin();
+        }
+        return count;
+    }
+
+    // 下滤算法
+    private void percolateDown(int hole) {
+        int child;
+        long tmpKey = keys[hole];
+        int tmpValue = values[hole];
+
+        for (; hole * 2 <= currentSize; hole = child) {
+            child = hole * 2;
+            if (child != currentSize && keys[child + 1] < keys[child]) // 存在两个儿子，取最小儿子索引+1，否则不加1
+                child++;
+            if (keys[child] < tmpKey) { // 最小儿子与当前结点比对
+                keys[hole] = keys[child];
+                values[hole] = values[child];
+            } else
+                break;
+        }
+        keys[hole] = tmpKey;
+        values[hole] = tmpValue;
+    }
+
+
+    // 3 其他方法 *******************************************************************************************************
+    // 数组扩容
+    private void enlargeArray(int newSize) {
+        keys = Arrays.copyOf(keys, newSize);
+        values = Arrays.copyOf(values, newSize);
+    }
+
+    // 查找最小键对应的负载
+    public int findMin() {
+        if (isEmpty())
+            throw new RuntimeException();
+        return values[1];
+    }
+
+    // 查找最小键
+    public long findMinKey() {
+        if (isEmpty())
+            throw new RuntimeException();
+        return keys[1];
+    }
+
+    // 构建二叉堆
+    private void buildHeap() {
+        // 从最后一个非叶子结点开始执行下滤，当执行到根则构建二叉堆数组完成堆序排列
+        for (int i = currentSize / 2; i > 0; i--)
+            percolateDown(i);
+    }
+
+    // 堆是否为空
+    public boolean isEmpty() {
+        return currentSize == 0;
+    }
+
+    // 使堆为空
+    public void makeEmpty() {
+        currentSize = 0;
+    }
+
+    public int getCurrentSize() {
+        return currentSize;
+    }
+
+
+    // 4 单元测试 *******************************************************************************************************
+    public static void main(String[] args) {
+        // 优先级 -> 任务编号
+        LongIntBinaryHeap h = new LongIntBinaryHeap(new long[]{30L, 10L, 20L}, new int[]{3, 1, 2});
+        h.insert(5L, 0);
+        h.insertAll(new long[]{40L, 15L}, new int[]{4, 5});
+
+        long[] priorities = new long[h.getCurrentSize()];
+        int[] tasks = new int[h.getCurrentSize()];
+        h.drainTo(priorities, tasks);
+        System.out.println(Arrays.toString(priorities));
+        System.out.println(Arrays.toString(tasks));
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.algds.tree.ds;
+
+import java.util.Arrays;
+
+/**
+ * 基数堆(单调小顶堆)
+ *      键为非负int，每个键携带一个int负载；要求单调：插入的键不小于最近一次删除的最小键last
+ *      按与last的最高不同二进制位把元素分入33个桶：桶0存放键等于last的元素，桶i(i>=1)存放最高不同位为第i-1位的元素
+ *      桶0为空时找到第一个非空桶，其中的最小键成为新的last，桶内元素按新的last重新分桶，都会落入更低的桶
+ *
+ *  每个元素最多下移32次，插入O(1)、删除最小值均摊O(log C)，C为键的取值范围；只比较整数，没有堆序维护开销
+ *  不支持decreaseKey，用于最短路径时同一顶点可以重复插入，出堆时按距离跳过过期元素
+ */
+public class RadixHeap {
+
+    // 1 基数堆结构定义 **************************************************************************************************
+    private static final int BUCKETS = 33;
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private final int[][] keys = new int[BUCKETS][];
+    private final int[][] values = new int[BUCKETS][];
+    private final int[] sizes = new int[BUCKETS];
+    private int currentSize;
+    private int last;        // 最近一次删除的最小键
+
+
+    public RadixHeap() {
+        for (int i = 0; i < BUCKETS; i++) {
+            keys[i] = new int[DEFAULT_CAPACITY];
+            values[i] = new int[DEFAULT_CAPACITY];
+        }
+    }
+
+
+    // 2 核心方法 *******************************************************************************************************
+    // 插入新元素，键不能小于last
+    public void insert(int key, int value) {
+        if (key < last)
+            throw new IllegalArgumentException(String.format("键%s小于最近删除的最小键%s", key, last));
+
+        push(bucketOf(key), key, value);
+        currentSize++;
+    }
+
+    // 删除最小键，返回其负载
+    public int deleteMin() {
+        if (isEmpty())
+            throw new RuntimeException();
+
+        if (sizes[0] == 0) {
+            redistribute();
+        }
+        currentSize--;
+        return values[0][--sizes[0]];
+    }
+
+    // 查找最小键，桶0为空时会先重新分桶
+    public int findMinKey() {
+        if (isEmpty())
+            throw new RuntimeException();
+
+        if (sizes[0] == 0) {
+            redistribute();
+        }
+        return last;
+    }
+
+    // 第一个非空桶的最小键成为新的last，桶内元素重新分桶
+    private void redistribute() {
+        int i = 1;
+        while (sizes[i] == 0) {
+            i++;
+        }
+        int[] bucketKeys = keys[i], bucketValues = values[i];
+        int size = sizes[i];
+        int min = bucketKeys[0];
+        for (int j = 1; j < size; j++) {
+            if (bucketKeys[j] < min) min = bucketKeys[j];
+        }
+        last = min;
+        sizes[i] = 0;
+        for (int j = 0; j < size; j++) {
+            push(bucketOf(bucketKeys[j]), bucketKeys[j], bucketValues[j]);
+        }
+    }
+
+    // 键与last的最高不同位决定桶号
+    private int bucketOf(int key) {
+        return key == last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void push(int bucket, int key, int value) {
+        int size = sizes[bucket];
+        if (size == keys[bucket].length) {
+            keys[bucket] = Arrays.copyOf(keys[bucket], size * 2);
+            values[bucket] = Arrays.copyOf(values[bucket], size * 2);
+        }
+        keys[bucket][size] = key;
+        values[bucket][size] = value;
+        sizes[bucket] = size + 1;
+    }
+
+
+    // 3 其他方法 *******************************************************************************************************
+    // 堆是否为空
+    public boolean isEmpty() {
+        return currentSize == 0;
+    }
+
+    // 使堆为空，last重置为0，桶数组保留以便复用
+    public void makeEmpty() {
+        Arrays.fill(sizes, 0);
+        currentSize = 0;
+        last = 0;
+    }
+
+    public int getCurrentSize() {
+        return currentSize;
+    }
+
+
+    // 4 单元测试 *******************************************************************************************************
+    public static void main(String[] args) {
+        // 优先级 -> 任务编号, 删除过程中继续插入不小于当前最小键的元素
+        RadixHeap h = new RadixHeap();
+        int[] priorities = {30, 10, 20, 5, 40, 15};
+        for (int i = 0; i < priorities.length; i++) {
+            h.insert(priorities[i], i);
+        }
+
+        StringBuilder order = new StringBuilder();
+        boolean inserted = false;
+        while (!h.isEmpty()) {
+            int key = h.findMinKey();
+            int task = h.deleteMin();
+            order.append(String.format("(%s, %s) ", key, task));
+            if (!inserted && key >= 15) {
+                h.insert(17, 6);
+                h.insert(15, 7);
+                inserted = true;
+            }
+        }
+        System.out.println(order);
+    }
+
+}
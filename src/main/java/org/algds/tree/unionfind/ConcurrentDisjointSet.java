@@ -0,0 +1,165 @@
+package org.algds.tree.unionfind;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 无锁并查集，多个线程可以同时查找与合并
+ *      parent 存放在AtomicIntegerArray中，所有修改都通过CAS完成
+ *      查找：路径减半，把节点从父节点改指向祖父节点；CAS失败说明其他线程已经改过，直接继续向上
+ *      合并：两个根按固定的优先级比较，优先级低的根以CAS指向另一个根；CAS失败说明该根已被合并，重新查找后重试
+ *
+ *  优先级为下标乘奇数常数(int上的一一映射)，相当于给每个元素一个固定的随机顺序，不需要额外保存秩，树高期望为 O(log n)
+ *  只有根会被CAS链接，且总是链接到优先级更高的根，因此不会成环
+ */
+public class ConcurrentDisjointSet {
+
+    // 1 并查集结构定义 **************************************************************************************************
+    private static final int GRAIN = 1 << 13; // 并行批量合并时叶子任务处理的元素对数
+
+    private final AtomicIntegerArray parent;
+
+
+    public ConcurrentDisjointSet(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+        }
+    }
+
+
+    // 2 核心方法 *******************************************************************************************************
+    // 查找x所在集合的根，路径减半；并发合并时返回的根可能随即被合并到其他根下
+    public int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) return x;
+            int g = parent.get(p);
+            if (g != p) parent.compareAndSet(x, p, g);
+            x = p;
+        }
+    }
+
+    // 合并x与y所在的集合；已在同一集合时返回false，并发合并同一对集合时只有一个线程返回true
+    public boolean union(int x, int y) {
+        while (true) {
+            int rootX = find(x), rootY = find(y);
+            if (rootX == rootY) return false;
+            if (priority(rootX) > priority(rootY)) {
+                int tmp = rootX;
+                rootX = rootY;
+                rootY = tmp;
+            }
+            if (parent.compareAndSet(rootX, rootX, rootY)) return true;
+        }
+    }
+
+    // x与y是否在同一集合；rootX在两次查找之间被合并时重试
+    public boolean isConnected(int x, int y) {
+        while (true) {
+            int rootX = find(x), rootY = find(y);
+            if (rootX == rootY) return true;
+            if (parent.get(rootX) == rootX) return false;
+        }
+    }
+
+    // 在调用线程中依次合并区间 [lo, hi) 内的 from[i] 与 to[i]，返回合并成功的次数
+    public int unionAll(int[] from, int[] to, int lo, int hi) {
+        int merged = 0;
+        for (int i = lo; i < hi; i++) {
+            if (union(from[i], to[i])) merged++;
+        }
+        return merged;
+    }
+
+    // 在pool上并行合并 from[i] 与 to[i]，返回合并成功的次数
+    public int unionAll(int[] from, int[] to, ForkJoinPool pool) {
+        return pool.invoke(new UnionTask(this, from, to, 0, from.length));
+    }
+
+    private static int priority(int x) {
+        return x * 0x9E3779B9;
+    }
+
+
+    // 3 其他方法 *******************************************************************************************************
+    // 集合数量，需要扫描全部元素，应在合并结束后调用
+    public int getCount() {
+        int count = 0;
+        for (int i = 0; i < parent.length(); i++) {
+            if (parent.get(i) == i) count++;
+        }
+        return count;
+    }
+
+    // 元素数量
+    public int size() {
+        return parent.length();
+    }
+
+    // 元素对区间 [lo, hi)：超过GRAIN时对半拆分
+    @SuppressWarnings("serial")
+    private static class UnionTask extends RecursiveTask<Integer> {
+        final ConcurrentDisjointSet set;
+        final int[] from, to;
+        final int lo, hi;
+
+        UnionTask(ConcurrentDisjointSet set, int[] from, int[] to, int lo, int hi) {
+            this.set = set;
+            this.from = from;
+            this.to = to;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (hi - lo <= GRAIN) {
+                return set.unionAll(from, to, lo, hi);
+            }
+            int mid = (lo + hi) >>> 1;
+            UnionTask left = new UnionTask(set, from, to, lo, mid);
+            UnionTask right = new UnionTask(set, from, to, mid, hi);
+            invokeAll(left, right);
+            return left.join() + right.join();
+        }
+    }
+
+
+    // 4 单元测试 *******************************************************************************************************
+    /**
+     * 随机图的连通分量: 并行合并与DisjointSet顺序合并比对集合数量与每对元素的连通性
+     */
+    public static void main(String[] args) {
+        int n = 2_000_000, m = 2_000_000;
+        Random random = new Random(42);
+        int[] from = new int[m], to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = random.nextInt(n);
+            to[i] = random.nextInt(n);
+        }
+
+        long start = System.nanoTime();
+        DisjointSet expected = new DisjointSet(n);
+        int expectedMerged = expected.unionAll(from, to);
+        long sequential = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        ConcurrentDisjointSet set = new ConcurrentDisjointSet(n);
+        int merged = set.unionAll(from, to, ForkJoinPool.commonPool());
+        long parallel = (System.nanoTime() - start) / 1_000_000;
+
+        int errors = 0;
+        for (int i = 0; i < 100_000; i++) {
+            int x = random.nextInt(n), y = random.nextInt(n);
+            if (expected.isConnected(x, y) != set.isConnected(x, y)) errors++;
+        }
+        System.out.println(String.format("元素 %s, 合并 %s 对: 顺序 %s ms, 并行 %s ms (%s线程)",
+                n, m, sequential, parallel, ForkJoinPool.commonPool().getParallelism()));
+        System.out.println(String.format("集合数量 %s / %s, 合并成功 %s / %s, 连通性错误%s个",
+                set.getCount(), expected.getCount(), merged, expectedMerged, errors));
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.algds.tree.unionfind;
+
+import java.util.Arrays;
+
+/**
+ * 并查集(不相交集合森林)
+ *      元素为 [0, n) 范围内的稠密整数下标，parent[x] == x 表示x是所在集合的根
+ *      查找时路径减半：每访问一个节点就把它指向祖父节点，只需一遍循环、不需要递归
+ *      合并时按秩合并：秩是树高的上界，不超过 log n，用byte存放
+ *
+ *  两者结合后单次操作均摊 O(α(n))；不依赖对象哈希与装箱，两个数组共 5n 字节
+ *  非线程安全，并发合并使用ConcurrentDisjointSet
+ */
+public class DisjointSet {
+
+    // 1 并查集结构定义 **************************************************************************************************
+    private final int[] parent;
+    private final byte[] rank;
+    private int count;       // 集合数量
+
+
+    public DisjointSet(int n) {
+        parent = new int[n];
+        rank = new byte[n];
+        makeEmpty();
+    }
+
+
+    // 2 核心方法 *******************************************************************************************************
+    // 查找x所在集合的根，路径减半
+    public int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    // 查找x所在集合的根，不压缩路径；只读不写，没有合并进行时可以被多个线程同时调用
+    public int root(int x) {
+        while (parent[x] != x) {
+            x = parent[x];
+        }
+        return x;
+    }
+
+    // 合并x与y所在的集合，按秩合并；已在同一集合时返回false
+    public boolean union(int x, int y) {
+        int rootX = find(x);
+        int rootY = find(y);
+        if (rootX == rootY) return false;
+
+        if (rank[rootX] > rank[rootY]) {
+            parent[rootY] = rootX;
+        } else if (rank[rootX] < rank[rootY]) {
+            parent[rootX] = rootY;
+        } else {
+            parent[rootY] = rootX;
+            rank[rootX]++;
+        }
+        count--;
+        return true;
+    }
+
+    // 依次合并 from[i] 与 to[i]，返回合并成功的次数
+    public int unionAll(int[] from, int[] to) {
+        return unionAll(from, to, 0, from.length);
+    }
+
+    // 依次合并区间 [lo, hi) 内的 from[i] 与 to[i]，返回合并成功的次数
+    public int unionAll(int[] from, int[] to, int lo, int hi) {
+        int merged = 0;
+        for (int i = lo; i < hi; i++) {
+            if (union(from[i], to[i])) merged++;
+        }
+        return merged;
+    }
+
+    public boolean isConnected(int x, int y) {
+        return find(x) == find(y);
+    }
+
+
+    // 3 其他方法 *******************************************************************************************************
+    // 每个元素自成一个集合
+    public void makeEmpty() {
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        Arrays.fill(rank, (byte) 0);
+        count = parent.length;
+    }
+
+    // 集合数量
+    public int getCount() {
+        return count;
+    }
+
+    // 元素数量
+    public int size() {
+        return parent.length;
+    }
+
+
+    // 4 单元测试 *******************************************************************************************************
+    public static void main(String[] args) {
+        DisjointSet set = new DisjointSet(10);
+        int[] from = {0, 2, 4, 6, 1, 3, 0};
+        int[] to = {1, 3, 5, 7, 2, 0, 3};
+        int merged = set.unionAll(from, to);
+
+        // {0,1,2,3} {4,5} {6,7} {8} {9}
+        System.out.println(String.format("合并成功%s次, 集合数量%s", merged, set.getCount()));
+        System.out.println(String.format("0与3连通: %s, 3与4连通: %s", set.isConnected(0, 3), set.isConnected(3, 4)));
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.algds.graph.benchmark;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.algorithm.ShortestPath;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Dijkstra优先队列对比: 索引二叉堆 / Dial桶队列 / 基数堆
+ *  网格路网与平均出度为8的随机图, 边权分别在 [1, 255] 与 [1, 1000000] 内随机; 大边权时Dial不适用
+ *  每轮从不同的源点出发, 结果与二叉堆版本逐一比对
+ *
+ * 运行参数: [网格边长] [轮数], 默认 1000 5
+ */
+public class BucketQueueBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        run("网格路网 边权1~255", CsrGraph.of(DeltaSteppingBenchmark.gridGraph(rows, 255, 42)), rounds);
+        run("随机图 边权1~255", CsrGraph.of(EdgeIterationBenchmark.randomGraph(rows * rows, 8, 255, 42)), rounds);
+        run("网格路网 边权1~1000000", CsrGraph.of(DeltaSteppingBenchmark.gridGraph(rows, 1_000_000, 42)), rounds);
+        run("随机图 边权1~1000000", CsrGraph.of(EdgeIterationBenchmark.randomGraph(rows * rows, 8, 1_000_000, 42)), rounds);
+    }
+
+    interface Sssp {
+        void run(CsrGraph csr, int source, int[] dist, int[] pred);
+    }
+
+    private static void run(String name, CsrGraph csr, int rounds) {
+        int n = csr.getVertexNum();
+        System.out.println(String.format("%s: 顶点数量 %s, 边的数量 %s, 轮数 %s", name, n, csr.getEdgeNum(), rounds));
+
+        long heap = measure(csr, rounds, ShortestPath::binaryHeapDijkstra, null);
+        System.out.println(String.format("    %-20s %6d ms/轮", "binaryHeapDijkstra", heap));
+        if (csr.getMaxWeight() <= ShortestPath.DIAL_MAX_WEIGHT) {
+            report("dial", measure(csr, rounds, ShortestPath::dial, ShortestPath::binaryHeapDijkstra), heap);
+        }
+        report("radixHeapDijkstra", measure(csr, rounds, ShortestPath::radixHeapDijkstra, ShortestPath::binaryHeapDijkstra), heap);
+        report("dijkstra(自动选择)", measure(csr, rounds, ShortestPath::dijkstra, ShortestPath::binaryHeapDijkstra), heap);
+    }
+
+    private static void report(String name, long elapsed, long heap) {
+        System.out.println(String.format("    %-20s %6d ms/轮, 相对二叉堆 %.2f", name, elapsed, heap / (double) Math.max(1, elapsed)));
+    }
+
+    // 返回每轮平均耗时(ms); expected不为空时先校验结果
+    private static long measure(CsrGraph csr, int rounds, Sssp sssp, Sssp expected) {
+        int n = csr.getVertexNum();
+        int[] dist = new int[n], pred = new int[n], expectedDist = new int[n];
+        Random random = new Random(7);
+        if (expected != null) {
+            for (int i = 0; i < 3; i++) {
+                int source = random.nextInt(n);
+                expected.run(csr, source, expectedDist, pred);
+                sssp.run(csr, source, dist, pred);
+                if (!Arrays.equals(expectedDist, dist)) {
+                    throw new IllegalStateException("结果与二叉堆版本不一致");
+                }
+            }
+        }
+        for (int i = 0; i < 2; i++) { // 预热
+            sssp.run(csr, random.nextInt(n), dist, pred);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            sssp.run(csr, random.nextInt(n), dist, pred);
+        }
+        return (System.nanoTime() - start) / rounds / 1_000_000;
+    }
+}
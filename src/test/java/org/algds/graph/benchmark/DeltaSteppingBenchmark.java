@@ -0,0 +1,108 @@
+package org.algds.graph.benchmark;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+import org.algds.graph.algorithm.DeltaStepping;
+import org.algds.graph.algorithm.ShortestPath;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Delta-Stepping 与 ShortestPath.dijkstra 对比
+ *  路网近似为 rows x rows 的双向网格, 边权在 [1, 1000] 内随机, 另附平均出度为8的随机图
+ *  线程数从1到N倍增, 每种线程数下测试多个桶宽度
+ *
+ * 运行参数: [网格边长] [最大线程数] [轮数], 默认 1000 CPU核数 5
+ */
+public class DeltaSteppingBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        run("网格路网", CsrGraph.of(gridGraph(rows, 42)), maxThreads, rounds);
+        run("随机图", CsrGraph.of(EdgeIterationBenchmark.randomGraph(rows * rows, 8, 42)), maxThreads, rounds);
+    }
+
+    private static void run(String name, CsrGraph csr, int maxThreads, int rounds) {
+        int n = csr.getVertexNum();
+        System.out.println(String.format("%s: 顶点数量 %s, 边的数量 %s, 轮数 %s", name, n, csr.getEdgeNum(), rounds));
+
+        int[] expected = new int[n], dist = new int[n], pred = new int[n];
+        ShortestPath.dijkstra(csr, 0, expected, pred);
+        long dijkstra = measure(rounds, () -> ShortestPath.dijkstra(csr, 0, dist, pred));
+        System.out.println(String.format("    %-28s %6d ms/轮", "dijkstra", dijkstra));
+
+        int[] deltas = {csr.getMaxWeight() / 32, csr.getMaxWeight() / 8, csr.getMaxWeight() / 2};
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            for (int delta : deltas) {
+                final int d = Math.max(1, delta);
+                DeltaStepping.deltaStepping(csr, 0, d, dist, pred, pool);
+                boolean same = Arrays.equals(expected, dist);
+                long elapsed = measure(rounds, () -> DeltaStepping.deltaStepping(csr, 0, d, dist, pred, pool));
+                System.out.println(String.format("    %-28s %6d ms/轮, 相对dijkstra %.2f, 结果%s",
+                        "deltaStepping x" + threads + " delta=" + d, elapsed,
+                        dijkstra / (double) Math.max(1, elapsed), same ? "一致" : "不一致"));
+            }
+            pool.shutdown();
+        }
+    }
+
+    interface Task {
+        void run();
+    }
+
+    private static long measure(int rounds, Task task) {
+        for (int i = 0; i < 2; i++) { // 预热
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / rounds / 1_000_000;
+    }
+
+    static Graph gridGraph(int rows, long seed) {
+        return gridGraph(rows, 1000, seed);
+    }
+
+    /**
+     * rows x rows 的双向网格, 两个方向边权相同, 在 [1, maxWeight] 内随机
+     */
+    static Graph gridGraph(int rows, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        Graph graph = new Graph();
+        Vertex[] vertices = new Vertex[rows * rows];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            graph.addVertex(vertices[i]);
+        }
+        int edgeId = 1;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < rows; c++) {
+                int v = r * rows + c;
+                if (c + 1 < rows) {
+                    int w = 1 + random.nextInt(maxWeight);
+                    graph.addEdge(edgeId++, vertices[v], vertices[v + 1], w, edgeLabel);
+                    graph.addEdge(edgeId++, vertices[v + 1], vertices[v], w, edgeLabel);
+                }
+                if (r + 1 < rows) {
+                    int w = 1 + random.nextInt(maxWeight);
+                    graph.addEdge(edgeId++, vertices[v], vertices[v + rows], w, edgeLabel);
+                    graph.addEdge(edgeId++, vertices[v + rows], vertices[v], w, edgeLabel);
+                }
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,81 @@
+package org.algds.graph.benchmark;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Edge;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Vertex;
+import org.algds.graph.algorithm.DynamicShortestPath;
+import org.algds.graph.algorithm.ShortestPath;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 动态最短路径修复延迟与全量重算对比
+ *  路网近似为 rows x rows 的双向网格(边权 [1, 1000]), 随机选边修改权重, 模拟路况推送
+ *  全量重算分别统计 重建CSR快照 + dijkstra 与 只执行dijkstra(快照已存在的下限)
+ *
+ * 运行参数: [网格边长] [修改次数], 默认 500 20000
+ */
+public class DynamicShortestPathBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+
+        Graph graph = DeltaSteppingBenchmark.gridGraph(rows, 42);
+        Vertex source = graph.getVertex(rows * (rows / 2) + rows / 2 + 1); // 网格中心
+        List<Edge> edges = new ArrayList<>();
+        for (Vertex vertex : graph.getVertices().values()) {
+            edges.addAll(vertex.getEdges());
+        }
+        System.out.println(String.format("顶点数量 %s, 边的数量 %s, 修改次数 %s", graph.getVertexNum(), graph.getEdgeNum(), updates));
+
+        long start = System.nanoTime();
+        DynamicShortestPath dynamic = new DynamicShortestPath(graph, source);
+        System.out.println(String.format("    初始计算                  %8.1f ms", (System.nanoTime() - start) / 1e6));
+
+        Random random = new Random(7);
+        long affected = 0, maxLatency = 0, increases = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            Edge edge = edges.get(random.nextInt(edges.size()));
+            int weight = 1 + random.nextInt(1000);
+            if (weight > edge.getWeight()) increases++;
+            long t = System.nanoTime();
+            graph.setEdgeWeight(edge, weight);
+            maxLatency = Math.max(maxLatency, System.nanoTime() - t);
+            affected += dynamic.getLastAffected();
+        }
+        double incremental = (System.nanoTime() - start) / 1e3 / updates;
+        System.out.println(String.format("    增量修复                  %8.1f us/次, 最大 %.1f us, 平均出堆 %s 个顶点, 变长 %s 次",
+                incremental, maxLatency / 1e3, affected / updates, increases));
+
+        // 全量重算
+        int n = graph.getVertexNum();
+        int[] dist = new int[n], pred = new int[n];
+        int rounds = 10;
+        CsrGraph csr = null;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            csr = CsrGraph.of(graph);
+            ShortestPath.dijkstra(csr, csr.indexOf(source), dist, pred);
+        }
+        double rebuild = (System.nanoTime() - start) / 1e3 / rounds;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            ShortestPath.dijkstra(csr, csr.indexOf(source), dist, pred);
+        }
+        double recompute = (System.nanoTime() - start) / 1e3 / rounds;
+        System.out.println(String.format("    全量 CSR快照 + dijkstra   %8.1f us/次, 相对增量 %.0f 倍", rebuild, rebuild / incremental));
+        System.out.println(String.format("    全量 dijkstra             %8.1f us/次, 相对增量 %.0f 倍", recompute, recompute / incremental));
+
+        int errors = 0;
+        for (int v = 0; v < n; v++) {
+            if (dist[v] != dynamic.getDistance(csr.vertexOf(v))) errors++;
+        }
+        System.out.println(String.format("    结果比对: 错误%s个", errors));
+        dynamic.detach();
+    }
+}
@@ -0,0 +1,127 @@
+package org.algds.graph.benchmark;
+
+import org.algds.graph.adjacency.Edge;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+import org.algds.graph.traversal.BreadthFirstSearch;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 邻接边遍历GC压力对比
+ *  getEdgeList() 每次复制一份列表, getEdges() 返回只读实时视图
+ *
+ * 运行参数: [顶点数] [平均出度] [轮数], 默认 200000 8 20
+ */
+public class EdgeIterationBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Graph graph = randomGraph(n, degree, 42);
+        System.out.println(String.format("顶点数量 %s, 边的数量 %s, 轮数 %s", graph.getVertexNum(), graph.getEdgeNum(), rounds));
+
+        // 预热
+        for (int i = 0; i < 3; i++) {
+            sumCopy(graph);
+            sumView(graph);
+        }
+
+        measure("getEdgeList() 复制", rounds, () -> sumCopy(graph));
+        measure("getEdges() 视图", rounds, () -> sumView(graph));
+        measure("BreadthFirstSearch.bfs", rounds, () -> BreadthFirstSearch.bfs(graph).size());
+    }
+
+    private static long sumCopy(Graph graph) {
+        long sum = 0;
+        for (Vertex vertex : graph.getVertices().values()) {
+            for (Edge edge : vertex.getEdgeList()) {
+                sum += edge.getTo().getId();
+            }
+        }
+        return sum;
+    }
+
+    private static long sumView(Graph graph) {
+        long sum = 0;
+        for (Vertex vertex : graph.getVertices().values()) {
+            List<Edge> edges = vertex.getEdges();
+            for (int j = 0; j < edges.size(); j++) {
+                sum += edges.get(j).getTo().getId();
+            }
+        }
+        return sum;
+    }
+
+    interface Task {
+        long run();
+    }
+
+    private static void measure(String name, int rounds, Task task) {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long gcCount = gcCount(), gcTime = gcTime();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long blackhole = 0;
+        for (int i = 0; i < rounds; i++) {
+            blackhole += task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        allocated = threadBean.getThreadAllocatedBytes(threadId) - allocated;
+
+        System.out.println(String.format("%-24s 耗时 %6d ms, 分配 %8.1f MB/轮, GC次数 %3d, GC耗时 %4d ms (%s)",
+                name, elapsed / 1_000_000, allocated / (double) rounds / (1 << 20),
+                gcCount() - gcCount, gcTime() - gcTime, blackhole));
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return time;
+    }
+
+    static Graph randomGraph(int n, int degree, long seed) {
+        return randomGraph(n, degree, 100, seed);
+    }
+
+    /**
+     * n个顶点、每个顶点degree条随机出边的图, 边权在 [1, maxWeight] 内随机
+     */
+    static Graph randomGraph(int n, int degree, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        Graph graph = new Graph();
+        Vertex[] vertices = new Vertex[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            graph.addVertex(vertices[i]);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < degree; d++) {
+                graph.addEdge(edgeId++, vertices[i], vertices[random.nextInt(n)], 1 + random.nextInt(maxWeight), edgeLabel);
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,74 @@
+package org.algds.graph.benchmark;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.algorithm.MiniSpanTree;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 最小生成森林: Kruskal、Prim 与并行 Filter-Kruskal、Boruvka 对比
+ *  网格路网为双向边, 全部算法结果可比; 随机图为有向边, Prim只沿出边扩展, 因此不参与比较
+ *  线程数从1到N倍增, 以生成森林的总权重校验结果
+ *
+ * 运行参数: [网格边长] [最大线程数] [轮数], 默认 1000 CPU核数 5
+ */
+public class MstBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        run("网格路网", CsrGraph.of(DeltaSteppingBenchmark.gridGraph(rows, 42)), true, maxThreads, rounds);
+        run("随机图", CsrGraph.of(EdgeIterationBenchmark.randomGraph(rows * rows, 8, 42)), false, maxThreads, rounds);
+    }
+
+    private static void run(String name, CsrGraph csr, boolean symmetric, int maxThreads, int rounds) {
+        System.out.println(String.format("%s: 顶点数量 %s, 边的数量 %s, 轮数 %s", name, csr.getVertexNum(), csr.getEdgeNum(), rounds));
+
+        long expected = total(csr, MiniSpanTree.kruskalMST(csr));
+        long kruskal = measure(rounds, () -> MiniSpanTree.kruskalMST(csr));
+        System.out.println(String.format("    %-20s %6d ms/轮, 总权重 %s", "kruskal", kruskal, expected));
+        if (symmetric) {
+            long prim = measure(rounds, () -> MiniSpanTree.primMST(csr));
+            System.out.println(String.format("    %-20s %6d ms/轮, 结果%s", "prim", prim,
+                    total(csr, MiniSpanTree.primMST(csr)) == expected ? "一致" : "不一致"));
+        }
+
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            boolean filterSame = total(csr, MiniSpanTree.filterKruskalMST(csr, pool)) == expected;
+            long filter = measure(rounds, () -> MiniSpanTree.filterKruskalMST(csr, pool));
+            System.out.println(String.format("    %-20s %6d ms/轮, 相对kruskal %.2f, 结果%s",
+                    "filterKruskal x" + threads, filter, kruskal / (double) Math.max(1, filter), filterSame ? "一致" : "不一致"));
+            boolean same = total(csr, MiniSpanTree.boruvkaMST(csr, pool)) == expected;
+            long elapsed = measure(rounds, () -> MiniSpanTree.boruvkaMST(csr, pool));
+            System.out.println(String.format("    %-20s %6d ms/轮, 相对kruskal %.2f, 结果%s",
+                    "boruvka x" + threads, elapsed, kruskal / (double) Math.max(1, elapsed), same ? "一致" : "不一致"));
+            pool.shutdown();
+        }
+    }
+
+    private static long total(CsrGraph csr, int[] edges) {
+        long sum = 0;
+        for (int e : edges) {
+            sum += csr.weight(e);
+        }
+        return sum;
+    }
+
+    interface Task {
+        void run();
+    }
+
+    private static long measure(int rounds, Task task) {
+        for (int i = 0; i < 2; i++) { // 预热
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / rounds / 1_000_000;
+    }
+}
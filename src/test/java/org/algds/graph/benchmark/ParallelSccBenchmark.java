@@ -0,0 +1,105 @@
+package org.algds.graph.benchmark;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+import org.algds.graph.algorithm.KosarajuScc;
+import org.algds.graph.algorithm.ParallelScc;
+import org.algds.graph.algorithm.TarjanScc;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 并行强连通分量扩展性测试: 线程数从1到N, 与顺序Tarjan/Kosaraju对比并校验分量划分一致
+ *  出度在 [0, 2*平均出度) 内随机, 图中既有一个巨型分量, 也有大量可被Trim剔除的单点分量
+ *
+ * 运行参数: [顶点数] [平均出度] [最大线程数] [轮数], 默认 1000000 3 CPU核数 5
+ */
+public class ParallelSccBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        CsrGraph csr = CsrGraph.of(varyingDegreeGraph(n, degree, 42));
+        System.out.println(String.format("顶点数量 %s, 边的数量 %s, 轮数 %s", csr.getVertexNum(), csr.getEdgeNum(), rounds));
+
+        int[] expected = new int[n];
+        int expectedCount = TarjanScc.tarjan(csr, expected);
+        normalize(expected);
+        System.out.println(String.format("强连通分量个数 %s", expectedCount));
+
+        int[] componentOf = new int[n];
+        long tarjan = measure(rounds, () -> TarjanScc.tarjan(csr, componentOf));
+        long kosaraju = measure(rounds, () -> KosarajuScc.kosaraju(csr, componentOf));
+        System.out.println(String.format("%-16s %6d ms/轮", "Tarjan", tarjan));
+        System.out.println(String.format("%-16s %6d ms/轮", "Kosaraju", kosaraju));
+
+        long base = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            final int t = threads;
+            int count = ParallelScc.scc(csr, componentOf, t); // 校验
+            boolean same = count == expectedCount && Arrays.equals(componentOf, expected);
+            long elapsed = measure(rounds, () -> ParallelScc.scc(csr, componentOf, t));
+            if (threads == 1) base = elapsed;
+            System.out.println(String.format("%-16s %6d ms/轮, 加速比 %.2f, 相对Tarjan %.2f, 结果%s",
+                    "ParallelScc x" + threads, elapsed, base / (double) Math.max(1, elapsed),
+                    tarjan / (double) Math.max(1, elapsed), same ? "一致" : "不一致"));
+        }
+    }
+
+    interface Task {
+        int run();
+    }
+
+    private static long measure(int rounds, Task task) {
+        for (int i = 0; i < 3; i++) { // 预热
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / rounds / 1_000_000;
+    }
+
+    // 分量按最小顶点下标重新编号, 与ParallelScc的编号规则一致
+    private static void normalize(int[] componentOf) {
+        int[] remap = new int[componentOf.length];
+        Arrays.fill(remap, -1);
+        int next = 0;
+        for (int v = 0; v < componentOf.length; v++) {
+            int c = componentOf[v];
+            if (remap[c] == -1) remap[c] = next++;
+            componentOf[v] = remap[c];
+        }
+    }
+
+    /**
+     * n个顶点的单位权随机图, 每个顶点的出度在 [0, 2*degree) 内随机, 平均出度约为degree; 出度为0的顶点自成强连通分量
+     */
+    static Graph varyingDegreeGraph(int n, int degree, long seed) {
+        Random random = new Random(seed);
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        Graph graph = new Graph();
+        Vertex[] vertices = new Vertex[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            graph.addVertex(vertices[i]);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < n; i++) {
+            int outDegree = random.nextInt(2 * degree);
+            for (int d = 0; d < outDegree; d++) {
+                graph.addEdge(edgeId++, vertices[i], vertices[random.nextInt(n)], 1, edgeLabel);
+            }
+        }
+        return graph;
+    }
+}
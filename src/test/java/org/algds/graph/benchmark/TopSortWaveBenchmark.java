@@ -0,0 +1,102 @@
+package org.algds.graph.benchmark;
+
+import org.algds.graph.adjacency.CsrGraph;
+import org.algds.graph.adjacency.Graph;
+import org.algds.graph.adjacency.Label;
+import org.algds.graph.adjacency.Vertex;
+import org.algds.graph.algorithm.TopSort;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 分波拓扑排序与卡恩算法对比: 随机DAG的边只从小下标指向大下标
+ *  校验每个顶点所在的波次 = 前驱所在波次的最大值 + 1 (没有前驱为0)
+ *  线程数从1到N倍增
+ *
+ * 运行参数: [顶点数] [出度] [最大线程数] [轮数], 默认 200000 5 CPU核数 5
+ */
+public class TopSortWaveBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        CsrGraph csr = CsrGraph.of(randomDag(n, degree, 1000, 42));
+        System.out.println(String.format("顶点数量 %s, 边的数量 %s, 轮数 %s", csr.getVertexNum(), csr.getEdgeNum(), rounds));
+
+        long kahn = measure(rounds, () -> TopSort.topSortKahn(csr));
+        System.out.println(String.format("%-16s %6d ms/轮", "卡恩算法", kahn));
+
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            int[][] waves = TopSort.topSortWaves(csr, pool);
+            int errors = verify(csr, waves);
+            long elapsed = measure(rounds, () -> TopSort.topSortWaves(csr, pool));
+            System.out.println(String.format("%-16s %6d ms/轮, 相对卡恩算法 %.2f, %s波, 错误%s个",
+                    "分波 x" + threads, elapsed, kahn / (double) Math.max(1, elapsed), waves.length, errors));
+            pool.shutdown();
+        }
+    }
+
+    interface Task {
+        Object run();
+    }
+
+    private static long measure(int rounds, Task task) {
+        for (int i = 0; i < 3; i++) { // 预热
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / rounds / 1_000_000;
+    }
+
+    // 下标即为拓扑序, 按下标顺序求出每个顶点的最长路径层数并与波次比对
+    private static int verify(CsrGraph csr, int[][] waves) {
+        int n = csr.getVertexNum();
+        int[] waveOf = new int[n];
+        int[] expected = new int[n];
+        for (int k = 0; k < waves.length; k++) {
+            for (int v : waves[k]) {
+                waveOf[v] = k;
+            }
+        }
+        int errors = 0;
+        for (int u = 0; u < n; u++) {
+            if (waveOf[u] != expected[u]) errors++;
+            for (int e = csr.edgeBegin(u), end = csr.edgeEnd(u); e < end; e++) {
+                expected[csr.target(e)] = Math.max(expected[csr.target(e)], expected[u] + 1);
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * n个顶点的随机DAG: 除最后一个顶点外, 顶点i有degree条指向 (i, i + span] 内随机顶点的单位权边
+     */
+    static Graph randomDag(int n, int degree, int span, long seed) {
+        Random random = new Random(seed);
+        Label vertexLabel = new Label("V", 1);
+        Label edgeLabel = new Label("E", 2);
+
+        Graph graph = new Graph();
+        Vertex[] vertices = new Vertex[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = new Vertex(i + 1, "v" + (i + 1), vertexLabel);
+            graph.addVertex(vertices[i]);
+        }
+        int edgeId = 1;
+        for (int i = 0; i < n - 1; i++) {
+            for (int d = 0; d < degree; d++) {
+                int j = i + 1 + random.nextInt(Math.min(n - i - 1, span));
+                graph.addEdge(edgeId++, vertices[i], vertices[j], 1, edgeLabel);
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,95 @@
+package org.algds.tree.benchmark;
+
+import org.algds.tree.ds.BinaryHeap;
+import org.algds.tree.ds.DaryHeap;
+
+import java.util.Random;
+
+/**
+ * d叉堆叉数对比: 2 / 4 / 8 叉，堆规模从1K按10倍增长到指定上限
+ *  负载模拟最短路径场景: 先插入n个元素，再执行n次 "插入2个 + 删除1个"，最后全部删除
+ *
+ * 运行参数: [最大规模], 默认 10000000；100000000 需要 -Xmx24g 以上
+ */
+public class DaryHeapBenchmark {
+
+    private static final int[] ARITIES = {2, 4, 8};
+
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        System.out.println(String.format("%12s %12s %12s %12s %12s", "n", "BinaryHeap", "d=2", "d=4", "d=8"));
+        for (int size = 1_000; size <= maxSize; size *= 10) {
+            final int n = size;
+            Integer[] values = randomValues(3 * n, n);
+            int rounds = Math.max(1, 1_000_000 / n); // 小规模重复多轮以降低计时误差
+
+            // 预热
+            runBinary(values, Math.min(n, 10_000));
+            for (int d : ARITIES) {
+                runDary(d, values, Math.min(n, 10_000));
+            }
+
+            StringBuilder line = new StringBuilder(String.format("%12d", n));
+            line.append(String.format(" %9.1f ns", time(rounds, 6L * n, () -> runBinary(values, n))));
+            for (int d : ARITIES) {
+                line.append(String.format(" %9.1f ns", time(rounds, 6L * n, () -> runDary(d, values, n))));
+            }
+            System.out.println(line);
+        }
+    }
+
+    interface Task {
+        long run();
+    }
+
+    // 返回平均每次堆操作耗时(ns)
+    private static double time(int rounds, long opsPerRound, Task task) {
+        long blackhole = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            blackhole += task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (blackhole == 42) System.out.print("");
+        return elapsed / (double) rounds / opsPerRound;
+    }
+
+    private static long runDary(int d, Integer[] values, int n) {
+        DaryHeap<Integer> heap = new DaryHeap<>(d, 2 * n);
+        long sum = 0;
+        int k = 0;
+        for (int i = 0; i < n; i++) heap.insert(values[k++]);
+        for (int i = 0; i < n; i++) {
+            heap.insert(values[k++ % values.length]);
+            heap.insert(values[k++ % values.length]);
+            sum += heap.deleteMin();
+        }
+        while (!heap.isEmpty()) sum += heap.deleteMin();
+        return sum;
+    }
+
+    private static long runBinary(Integer[] values, int n) {
+        BinaryHeap<Integer> heap = new BinaryHeap<>(2 * n);
+        long sum = 0;
+        int k = 0;
+        for (int i = 0; i < n; i++) heap.insert(values[k++]);
+        for (int i = 0; i < n; i++) {
+            heap.insert(values[k++ % values.length]);
+            heap.insert(values[k++ % values.length]);
+            sum += heap.deleteMin();
+        }
+        while (!heap.isEmpty()) sum += heap.deleteMin();
+        return sum;
+    }
+
+    // 预先装箱，避免计时包含装箱开销
+    private static Integer[] randomValues(int count, int seed) {
+        Random random = new Random(seed);
+        Integer[] values = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt();
+        }
+        return values;
+    }
+}